@@ -0,0 +1,93 @@
+package com.recruitment.taskmanager.benchmark;
+
+import com.recruitment.taskmanager.config.ThymeleafTemplateConfig;
+import com.recruitment.taskmanager.model.Email;
+import com.recruitment.taskmanager.service.EmailRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders the "added to task" emails of one task with {@code recipients} assignees, once by
+ * processing the template for every recipient and once through {@link EmailRenderer}.
+ * Divide the score by {@code recipients} for the cost per recipient.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailRenderBenchmark {
+
+    @Param({"1", "10", "50"})
+    int recipients;
+
+    AnnotationConfigApplicationContext context;
+    TemplateEngine templateEngine;
+    EmailRenderer emailRenderer;
+    List<Email> emails;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(ThymeleafTemplateConfig.class, EmailRenderer.class);
+        templateEngine = context.getBean(TemplateEngine.class);
+        emailRenderer = context.getBean(EmailRenderer.class);
+
+        List<String> users = new ArrayList<>();
+        for (int i = 1; i <= recipients; i++) {
+            users.add("John Doe" + i + "email: user" + i + "@example.com");
+        }
+        emails = new ArrayList<>();
+        for (int i = 1; i <= recipients; i++) {
+            Map<String, Object> properties = new HashMap<>();
+            properties.put("name", "John" + i);
+            properties.put("title", "Quarterly audit");
+            properties.put("description", "Prepare the documents for the quarterly audit");
+            properties.put("dueDate", LocalDate.of(2023, 1, 8));
+            properties.put("users", users);
+            emails.add(new Email("user" + i + "@example.com", "tasks@example.com", "Added to task", null,
+                    "added-to-task-template.html", properties));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<String> renderPerRecipient() {
+        List<String> bodies = new ArrayList<>(emails.size());
+        for (Email email : emails) {
+            Context templateContext = new Context();
+            templateContext.setVariables(email.getProperties());
+            bodies.add(templateEngine.process(email.getTemplate(), templateContext));
+        }
+        return bodies;
+    }
+
+    @Benchmark
+    public List<String> renderPerTask() {
+        return emailRenderer.render(emails);
+    }
+}
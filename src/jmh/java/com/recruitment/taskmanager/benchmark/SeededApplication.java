@@ -0,0 +1,158 @@
+package com.recruitment.taskmanager.benchmark;
+
+import com.recruitment.taskmanager.TaskmanagerApplication;
+import com.recruitment.taskmanager.enums.Status;
+import com.recruitment.taskmanager.service.TaskSearchService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Application context running against a private in-memory H2 database
+ * seeded with {@code tasks} tasks, one user per ten tasks and
+ * {@link #USERS_PER_TASK} assignees per task.
+ */
+final class SeededApplication implements AutoCloseable {
+
+    static final int USERS_PER_TASK = 3;
+    static final LocalDate FIRST_DUE_DATE = LocalDate.of(2023, 1, 1);
+    static final int DUE_DATE_DAYS = 365;
+
+    private static final int BATCH_SIZE = 10_000;
+    private static final String[] FIRST_NAMES = {"John", "Jane", "Adam", "Eve", "Mark", "Anna", "Paul", "Olga"};
+    private static final Status[] STATUSES = Status.values();
+
+    private final ConfigurableApplicationContext context;
+    private final int tasks;
+    private final int users;
+
+    private SeededApplication(ConfigurableApplicationContext context, int tasks, int users) {
+        this.context = context;
+        this.tasks = tasks;
+        this.users = users;
+    }
+
+    static SeededApplication start(int tasks) {
+        return start(tasks, WebApplicationType.NONE, "benchmark");
+    }
+
+    /**
+     * Starts the application with an embedded web server on a random port.
+     */
+    static SeededApplication startServer(int tasks, String profiles) {
+        return start(tasks, WebApplicationType.SERVLET, profiles);
+    }
+
+    private static SeededApplication start(int tasks, WebApplicationType webApplicationType, String profiles) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(TaskmanagerApplication.class)
+                .web(webApplicationType)
+                // benchmarks run with the test classes on the classpath
+                .initializers(initialized -> initialized.getBeanFactory()
+                        .registerSingleton(TestTypesFilter.class.getName(), new TestTypesFilter()))
+                .run("--spring.profiles.active=" + profiles,
+                        "--spring.main.banner-mode=off",
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.mail.username=benchmark@localhost",
+                        "--notifications.workers=0",
+                        "--logging.file.name=target/benchmark.log",
+                        "--logging.level.root=WARN");
+
+        SeededApplication application = new SeededApplication(context, tasks, Math.max(tasks / 10, 100));
+        application.seed(context.getBean(JdbcTemplate.class));
+        // rows were inserted behind the application's back
+        context.getBean(TaskSearchService.class).rebuildIndex();
+        return application;
+    }
+
+    int port() {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    int tasks() {
+        return tasks;
+    }
+
+    int users() {
+        return users;
+    }
+
+    long randomTaskId() {
+        return ThreadLocalRandom.current().nextLong(1, tasks + 1);
+    }
+
+    long randomUserId() {
+        return ThreadLocalRandom.current().nextLong(1, users + 1);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    // ids are assigned explicitly, the sequences are moved past them afterwards
+    private void seed(JdbcTemplate jdbcTemplate) {
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 1; i <= users; i++) {
+            rows.add(new Object[]{i, FIRST_NAMES[i % FIRST_NAMES.length], "Doe" + i, "user" + i + "@example.com", 18 + i % 50});
+            flush(jdbcTemplate, "INSERT INTO users (id, first_name, last_name, email, age) VALUES (?, ?, ?, ?, ?)", rows, i == users);
+        }
+        for (int i = 1; i <= tasks; i++) {
+            rows.add(new Object[]{i, "Task " + i, "Description of task " + i, STATUSES[i % STATUSES.length].name(),
+                    FIRST_DUE_DATE.plusDays(i % DUE_DATE_DAYS)});
+            flush(jdbcTemplate, "INSERT INTO task (id, title, description, status, due_date) VALUES (?, ?, ?, ?, ?)", rows, i == tasks);
+        }
+        for (int i = 1; i <= tasks; i++) {
+            for (int j = 0; j < USERS_PER_TASK; j++) {
+                rows.add(new Object[]{i, 1 + (i + j * 7L) % users});
+            }
+            flush(jdbcTemplate, "INSERT INTO task_users (tasks_id, users_id) VALUES (?, ?)", rows, i == tasks);
+        }
+        jdbcTemplate.execute("ALTER SEQUENCE users_seq RESTART WITH " + (users + 1000));
+        jdbcTemplate.execute("ALTER SEQUENCE task_seq RESTART WITH " + (tasks + 1000));
+    }
+
+    private static void flush(JdbcTemplate jdbcTemplate, String sql, List<Object[]> rows, boolean last) {
+        if (rows.size() >= BATCH_SIZE || last) {
+            jdbcTemplate.batchUpdate(sql, rows);
+            rows.clear();
+        }
+    }
+
+    /**
+     * Keeps the component scan away from test configurations, which would add their mail senders
+     * to the application.
+     */
+    private static final class TestTypesFilter extends TypeExcludeFilter {
+
+        @Override
+        public boolean match(MetadataReader metadataReader, MetadataReaderFactory metadataReaderFactory) {
+            return metadataReader.getAnnotationMetadata().hasAnnotation(TestConfiguration.class.getName());
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj != null && getClass() == obj.getClass();
+        }
+
+        @Override
+        public int hashCode() {
+            return getClass().hashCode();
+        }
+    }
+}
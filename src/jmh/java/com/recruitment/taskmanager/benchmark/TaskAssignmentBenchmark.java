@@ -0,0 +1,73 @@
+package com.recruitment.taskmanager.benchmark;
+
+import com.recruitment.taskmanager.exceptions.UserExistedInTaskException;
+import com.recruitment.taskmanager.model.Task;
+import com.recruitment.taskmanager.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adds and removes single assignees of one task which has every seeded user, {@code assignees}
+ * in total, assigned to it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TaskAssignmentBenchmark {
+
+    private static final long TASK_ID = 1;
+
+    @Param({"1000", "5000"})
+    int assignees;
+
+    SeededApplication application;
+    TaskService taskService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // the seed has one user per ten tasks
+        application = SeededApplication.start(assignees * 10);
+        taskService = application.getBean(TaskService.class);
+        application.getBean(JdbcTemplate.class).update("INSERT INTO task_users (tasks_id, users_id)"
+                + " SELECT ?, u.id FROM users u WHERE NOT EXISTS"
+                + " (SELECT 1 FROM task_users tu WHERE tu.tasks_id = ? AND tu.users_id = u.id)", TASK_ID, TASK_ID);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public Task addAssignedUser() {
+        try {
+            return taskService.addUserToTask(application.randomUserId(), TASK_ID);
+        } catch (UserExistedInTaskException e) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public Task removeAndAddUser() {
+        long userId = application.randomUserId();
+        taskService.removeUserFromTask(userId, TASK_ID);
+        return taskService.addUserToTask(userId, TASK_ID);
+    }
+}
@@ -0,0 +1,57 @@
+package com.recruitment.taskmanager.benchmark;
+
+import com.recruitment.taskmanager.dto.TaskSearchPage;
+import com.recruitment.taskmanager.service.TaskSearchService;
+import com.recruitment.taskmanager.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TaskSearchBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    int tasks;
+
+    SeededApplication application;
+    TaskSearchService taskSearchService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        application = SeededApplication.start(tasks);
+        taskSearchService = application.getBean(TaskSearchService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public TaskSearchPage searchRareTerm() {
+        return taskSearchService.searchTasks("task " + application.randomTaskId(), 0, TaskService.DEFAULT_PAGE_SIZE);
+    }
+
+    // every seeded task matches, so the whole postings list is scored
+    @Benchmark
+    public TaskSearchPage searchCommonTerm() {
+        return taskSearchService.searchTasks("description", 0, TaskService.DEFAULT_PAGE_SIZE);
+    }
+}
@@ -0,0 +1,69 @@
+package com.recruitment.taskmanager.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.recruitment.taskmanager.dto.TaskPage;
+import com.recruitment.taskmanager.dto.TaskView;
+import com.recruitment.taskmanager.enums.Status;
+import com.recruitment.taskmanager.model.Task;
+import com.recruitment.taskmanager.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes one page of tasks with the same Jackson configuration Spring MVC uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskSerializationBenchmark {
+
+    @Param({"1", "5", "20"})
+    int usersPerTask;
+
+    ObjectMapper objectMapper;
+    List<Task> tasks;
+    TaskPage taskPage;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        tasks = new ArrayList<>();
+        for (long i = 1; i <= 50; i++) {
+            List<User> users = new ArrayList<>();
+            for (long j = 1; j <= usersPerTask; j++) {
+                users.add(new User(j, "John", "Doe" + j, "user" + j + "@example.com", 30, new ArrayList<>()));
+            }
+            tasks.add(new Task(i, "Task " + i, "Description of task " + i, Status.OPENED, users,
+                    SeededApplication.FIRST_DUE_DATE.plusDays(i)));
+        }
+        taskPage = new TaskPage(tasks.stream().map(TaskView::of).toList(), "MjAyMy0wMS0wMXw1MA");
+    }
+
+    @Benchmark
+    public byte[] serializeTasks() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(tasks);
+    }
+
+    @Benchmark
+    public byte[] serializeTaskPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(taskPage);
+    }
+}
@@ -0,0 +1,97 @@
+package com.recruitment.taskmanager.benchmark;
+
+import com.recruitment.taskmanager.dto.TaskDto;
+import com.recruitment.taskmanager.dto.TaskPage;
+import com.recruitment.taskmanager.enums.Status;
+import com.recruitment.taskmanager.exceptions.UserExistedInTaskException;
+import com.recruitment.taskmanager.model.Task;
+import com.recruitment.taskmanager.service.TaskCursor;
+import com.recruitment.taskmanager.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TaskServiceBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    int tasks;
+
+    SeededApplication application;
+    TaskService taskService;
+    String middleCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        application = SeededApplication.start(tasks);
+        taskService = application.getBean(TaskService.class);
+        middleCursor = new TaskCursor(SeededApplication.FIRST_DUE_DATE.plusDays(SeededApplication.DUE_DATE_DAYS / 2), 0L)
+                .encode();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public TaskPage findTasksFirstPage() {
+        return taskService.findTasks(null, null, null, null, null, TaskService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public TaskPage findTasksFromCursor() {
+        return taskService.findTasks(null, null, null, null, middleCursor, TaskService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public TaskPage findTasksOfUser() {
+        return taskService.findTasks(null, null, application.randomUserId(), null, null, TaskService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public TaskPage findTasksByTitle() {
+        return taskService.findTasks("Task " + application.randomTaskId(), null, null, null, null,
+                TaskService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public TaskPage findTasksByStatusDueBefore() {
+        return taskService.findTasks(null, Status.COMPLETED, null, SeededApplication.FIRST_DUE_DATE.plusDays(30), null,
+                TaskService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Task createTask() {
+        Long[] userIds = {application.randomUserId(), application.randomUserId(), application.randomUserId()};
+        TaskDto taskDto = new TaskDto("Benchmark task", "Task created by benchmark", userIds,
+                SeededApplication.FIRST_DUE_DATE);
+        return taskService.createTask(taskDto);
+    }
+
+    @Benchmark
+    public Task addUserToTask() {
+        try {
+            return taskService.addUserToTask(application.randomUserId(), application.randomTaskId());
+        } catch (UserExistedInTaskException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.recruitment.taskmanager.benchmark;
+
+import com.recruitment.taskmanager.dto.UserPage;
+import com.recruitment.taskmanager.service.UserSearchParser;
+import com.recruitment.taskmanager.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class UserServiceBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    int tasks;
+
+    SeededApplication application;
+    UserService userService;
+    UserSearchParser userSearchParser;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        application = SeededApplication.start(tasks);
+        userService = application.getBean(UserService.class);
+        userSearchParser = application.getBean(UserSearchParser.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        application.close();
+    }
+
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, UserService.DEFAULT_PAGE_SIZE);
+
+    @Benchmark
+    public UserPage findUsersByName() {
+        return userService.findUsers(userSearchParser.parse("firstName:Jane"), FIRST_PAGE, false);
+    }
+
+    @Benchmark
+    public UserPage findUsersByNameAndAge() {
+        return userService.findUsers(userSearchParser.parse("firstName:Jane,age>60"), FIRST_PAGE, false);
+    }
+
+    @Benchmark
+    public UserPage findUsersByNameWithCount() {
+        return userService.findUsers(userSearchParser.parse("firstName:Jane"), FIRST_PAGE, true);
+    }
+}
@@ -0,0 +1,20 @@
+package com.recruitment.taskmanager.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Tasks and users by ID, and parsed user searches, are cached in Caffeine, see {@code spring.cache}
+ * for size and TTL.
+ * The caching advice wraps the transactional one, so evictions happen after commit.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+
+    public static final String TASKS = "tasks";
+    public static final String USERS = "users";
+    public static final String USER_SEARCHES = "userSearches";
+
+}
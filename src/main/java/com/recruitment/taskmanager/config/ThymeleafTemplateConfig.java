@@ -15,6 +15,8 @@ public class ThymeleafTemplateConfig {
     public SpringTemplateEngine springTemplateEngine() {
         SpringTemplateEngine templateEngine = new SpringTemplateEngine();
         templateEngine.addTemplateResolver(htmlTemplateResolver());
+        // expressions of the cached templates are compiled to bytecode after a few evaluations
+        templateEngine.setEnableSpringELCompiler(true);
         return templateEngine;
     }
 
@@ -25,6 +27,9 @@ public class ThymeleafTemplateConfig {
         emailTemplateResolver.setSuffix(".html");
         emailTemplateResolver.setTemplateMode(TemplateMode.HTML);
         emailTemplateResolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        // parse every template once and keep it for the lifetime of the application
+        emailTemplateResolver.setCacheable(true);
+        emailTemplateResolver.setCacheTTLMs(null);
         return emailTemplateResolver;
     }
 }
\ No newline at end of file
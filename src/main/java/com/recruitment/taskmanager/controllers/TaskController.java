@@ -1,54 +1,168 @@
 package com.recruitment.taskmanager.controllers;
 
+import com.recruitment.taskmanager.dto.AssignmentResult;
+import com.recruitment.taskmanager.dto.CachedTask;
+import com.recruitment.taskmanager.dto.TaskAssignmentDto;
+import com.recruitment.taskmanager.dto.TaskBatchItem;
 import com.recruitment.taskmanager.dto.TaskDto;
+import com.recruitment.taskmanager.dto.TaskPage;
+import com.recruitment.taskmanager.dto.TaskSearchPage;
+import com.recruitment.taskmanager.dto.TaskStats;
+import com.recruitment.taskmanager.dto.TaskStatusResult;
+import com.recruitment.taskmanager.dto.TaskView;
+import com.recruitment.taskmanager.enums.BatchItemStatus;
+import com.recruitment.taskmanager.enums.ExportFormat;
 import com.recruitment.taskmanager.enums.Status;
+import com.recruitment.taskmanager.exceptions.InvalidSearchException;
 import com.recruitment.taskmanager.exceptions.ResourceNotFoundException;
 import com.recruitment.taskmanager.model.Task;
-import com.recruitment.taskmanager.repositories.TaskRepository;
+import com.recruitment.taskmanager.service.ETags;
+import com.recruitment.taskmanager.service.TaskExportService;
+import com.recruitment.taskmanager.service.TaskSearchService;
 import com.recruitment.taskmanager.service.TaskService;
+import com.recruitment.taskmanager.service.TaskStatsService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import java.io.OutputStream;
 import java.net.URI;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("${api.path}/tasks")
 public class TaskController {
 
     TaskService taskService;
-    TaskRepository taskRepository;
+    TaskExportService taskExportService;
+    TaskSearchService taskSearchService;
+    TaskStatsService taskStatsService;
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TaskController.class);
 
-    public TaskController(TaskService taskService, TaskRepository taskRepository) {
+    public TaskController(TaskService taskService, TaskExportService taskExportService,
+                          TaskSearchService taskSearchService, TaskStatsService taskStatsService) {
         this.taskService = taskService;
-        this.taskRepository = taskRepository;
+        this.taskExportService = taskExportService;
+        this.taskSearchService = taskSearchService;
+        this.taskStatsService = taskStatsService;
     }
 
     @GetMapping("/")
-    public ResponseEntity<List<Task>> getTasks(@RequestParam(required = false) String title,
-                                               @RequestParam(required = false) Status status,
-                                               @RequestParam(required = false) Long userId,
-                                               @RequestParam(required = false) LocalDate dateBefore) {
+    public ResponseEntity<TaskPage> getTasks(@RequestParam(required = false) String title,
+                                             @RequestParam(required = false) Status status,
+                                             @RequestParam(required = false) Long userId,
+                                             @RequestParam(required = false) LocalDate dateBefore,
+                                             @RequestParam(required = false) String after,
+                                             @RequestParam(defaultValue = "" + TaskService.DEFAULT_PAGE_SIZE) int limit) {
 
-        LOGGER.info("Getting all tasks");
+        LOGGER.info("Getting tasks page");
 
-        return ResponseEntity.ok(taskService.findTasks(title, status, userId, dateBefore));
+        return ResponseEntity.ok(taskService.findTasks(title, status, userId, dateBefore, after, limit));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<TaskSearchPage> searchTasks(@RequestParam String q,
+                                                      @RequestParam(defaultValue = "0") int page,
+                                                      @RequestParam(defaultValue = "" + TaskService.DEFAULT_PAGE_SIZE) int size) {
+
+        LOGGER.info("Searching tasks");
+
+        return ResponseEntity.ok(taskSearchService.searchTasks(q, page, size));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<TaskStats> getTaskStats() {
+
+        LOGGER.info("Getting task stats");
+
+        return ResponseEntity.ok(taskStatsService.globalStats());
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(@RequestParam(defaultValue = "NDJSON") ExportFormat format,
+                                                             @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        LOGGER.info("Exporting tasks as {}", format);
+
+        boolean gzip = acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = outputStream -> {
+            OutputStream target = gzip ? new GZIPOutputStream(outputStream) : outputStream;
+            long exported = taskExportService.exportTasks(format, target);
+            if (target instanceof GZIPOutputStream gzipOutputStream) {
+                gzipOutputStream.finish();
+            }
+            LOGGER.info("Exported {} tasks", exported);
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=tasks." + format.getExtension())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    /**
+     * Honours q-values (RFC 9110 section 12.5.3): an explicit {@code gzip} entry wins over {@code *}, and q=0 means the
+     * client refuses the coding.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double wildcardQuality = null;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase();
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=") || param.startsWith("Q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzipQuality = quality;
+            } else if (coding.equals("*")) {
+                wildcardQuality = quality;
+            }
+        }
+        Double quality = gzipQuality != null ? gzipQuality : wildcardQuality;
+        return quality != null && quality > 0;
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Task> getTask(@PathVariable Long id) {
+    public ResponseEntity<TaskView> getTask(@PathVariable Long id,
+                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
         LOGGER.info("Getting info about task {}", id);
 
-        Task task = taskService.findTaskById(id)
+        if (ifNoneMatch != null) {
+            Optional<String> eTag = taskService.findTaskETag(id);
+            if (eTag.isPresent() && ETags.matches(ifNoneMatch, eTag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag.get()).build();
+            }
+        }
+        CachedTask task = taskService.findTaskById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Task with ID :" + id + " Not Found"));
-        return ResponseEntity.ok(task);
+        return ResponseEntity.ok().eTag(task.getETag()).body(task.getTask());
     }
 
     @PostMapping("/")
@@ -65,15 +179,25 @@ public class TaskController {
         return ResponseEntity.created(newTaskUri).body(newTask);
     }
 
+    @PostMapping("/batch")
+    ResponseEntity<List<TaskBatchItem>> createTasks(@RequestBody List<TaskDto> taskDtos) {
+
+        LOGGER.info("Creating {} tasks", taskDtos.size());
+
+        List<TaskBatchItem> results = taskService.createTasks(taskDtos);
+
+        boolean allCreated = results.stream().allMatch(result -> result.getStatus() == BatchItemStatus.CREATED);
+        return ResponseEntity.status(allCreated ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS).body(results);
+    }
+
     @DeleteMapping("/{id}")
     ResponseEntity<String> deleteTask(@PathVariable Long id) {
 
         LOGGER.info("Deleting task {}", id);
 
-        if (taskRepository.findById(id).isEmpty()) {
+        if (!taskService.deleteTask(id)) {
             throw new ResourceNotFoundException("Task with ID :" + id + " Not Found");
         }
-        taskService.deleteTask(id);
         return ResponseEntity.ok("Task deleted");
     }
 
@@ -96,6 +220,45 @@ public class TaskController {
         return ResponseEntity.ok(editedTask);
     }
 
+    @PatchMapping("/user-addition")
+    ResponseEntity<AssignmentResult> addUsersToTasks(@Valid @RequestBody TaskAssignmentDto assignment) {
+
+        LOGGER.info("adding {} users to {} tasks", assignment.getUserIds().size(), assignment.getTaskIds().size());
+
+        return ResponseEntity.ok(taskService.addUsersToTasks(assignment));
+    }
+
+    @PatchMapping("/user-removing")
+    ResponseEntity<AssignmentResult> removeUsersFromTasks(@Valid @RequestBody TaskAssignmentDto assignment) {
+
+        LOGGER.info("removing {} users from {} tasks", assignment.getUserIds().size(), assignment.getTaskIds().size());
+
+        return ResponseEntity.ok(taskService.removeUsersFromTasks(assignment));
+    }
+
+    /**
+     * Changes the status of the tasks listed in the body or, without a body, of every task
+     * matching the filters of {@link #getTasks}.
+     */
+    @PatchMapping("/status")
+    ResponseEntity<TaskStatusResult> changeTasksStatus(@RequestParam Status to,
+                                                       @RequestParam(required = false) String title,
+                                                       @RequestParam(required = false) Status status,
+                                                       @RequestParam(required = false) Long userId,
+                                                       @RequestParam(required = false) LocalDate dateBefore,
+                                                       @RequestBody(required = false) List<Long> ids) {
+
+        LOGGER.info("changing status of tasks to {}", to);
+
+        if (ids != null) {
+            return ResponseEntity.ok(taskService.changeTasksStatus(to, ids));
+        }
+        if (title == null && status == null && userId == null && dateBefore == null) {
+            throw new InvalidSearchException("Select tasks by ids or by at least one filter");
+        }
+        return ResponseEntity.ok(taskService.changeTasksStatus(to, title, status, userId, dateBefore));
+    }
+
     @PatchMapping("/{id}/status")
     ResponseEntity<Task> changeTaskStatus(@PathVariable Long id, @RequestParam Status status) {
 
@@ -1,39 +1,47 @@
 package com.recruitment.taskmanager.controllers;
 
+import com.recruitment.taskmanager.dto.TaskStats;
 import com.recruitment.taskmanager.dto.UserDto;
+import com.recruitment.taskmanager.dto.UserPage;
 import com.recruitment.taskmanager.exceptions.ResourceNotFoundException;
 import com.recruitment.taskmanager.model.User;
-import com.recruitment.taskmanager.repositories.UserRepository;
-import com.recruitment.taskmanager.service.SearchCriteria;
+import com.recruitment.taskmanager.service.ETags;
+import com.recruitment.taskmanager.service.TaskStatsService;
+import com.recruitment.taskmanager.service.UserSearchParser;
 import com.recruitment.taskmanager.service.UserService;
-import com.recruitment.taskmanager.service.UserSpecification;
 import com.recruitment.taskmanager.service.UserValidator;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import java.net.URI;
-import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("${api.path}/users")
 public class UserController {
 
     UserService userService;
-    UserRepository userRepository;
     UserValidator userValidator;
+    UserSearchParser userSearchParser;
+    TaskStatsService taskStatsService;
 
     private static final Logger LOGGER = LoggerFactory.getLogger(UserController.class);
 
-    public UserController(UserService userService, UserRepository userRepository, UserValidator userValidator) {
+    public UserController(UserService userService, UserValidator userValidator,
+                          UserSearchParser userSearchParser, TaskStatsService taskStatsService) {
         this.userService = userService;
-        this.userRepository = userRepository;
         this.userValidator = userValidator;
+        this.userSearchParser = userSearchParser;
+        this.taskStatsService = taskStatsService;
     }
 
     @InitBinder("userDto")
@@ -42,32 +50,44 @@ public class UserController {
     }
 
     @GetMapping("/")
-    public ResponseEntity<List<User>> getUsers(@RequestParam(required = false) String search) {
+    public ResponseEntity<UserPage> getUsers(@RequestParam(required = false) String search,
+                                             @PageableDefault(size = UserService.DEFAULT_PAGE_SIZE) Pageable pageable,
+                                             @RequestParam(defaultValue = "false") boolean count) {
 
-        LOGGER.info("Getting all users");
+        LOGGER.info("Getting page {} of users", pageable.getPageNumber());
 
-        UserSpecification specification = new UserSpecification();
-        if (search != null) {
-            Pattern pattern = Pattern.compile("(\\w+)(:|<|>|>=|<=)(\\w+),", Pattern.UNICODE_CHARACTER_CLASS);
-            Matcher matcher = pattern.matcher(search + ",");
-            while (matcher.find()) {
-                specification.add(new SearchCriteria(matcher.group(1),
-                        matcher.group(2), matcher.group(3)));
-            }
-        }
-        List<User> users = userService.findAllUsers(specification);
-        return ResponseEntity.ok(users);
+        Pageable checked = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                userSearchParser.checkSort(pageable.getSort()));
+        return ResponseEntity.ok(userService.findUsers(userSearchParser.parse(search), checked, count));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<User> getUser(@PathVariable Long id) {
+    public ResponseEntity<User> getUser(@PathVariable Long id,
+                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
         LOGGER.info("Getting info about user {}", id);
 
+        if (ifNoneMatch != null) {
+            Optional<String> eTag = userService.findUserETag(id);
+            if (eTag.isPresent() && ETags.matches(ifNoneMatch, eTag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag.get()).build();
+            }
+        }
         User user = userService.findUserById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User with ID :" + id + " Not Found"));
 
-        return ResponseEntity.ok().body(user);
+        return ResponseEntity.ok().eTag(ETags.of(user)).body(user);
+    }
+
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<TaskStats> getUserStats(@PathVariable Long id) {
+
+        LOGGER.info("Getting task stats of user {}", id);
+
+        userService.findUserById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User with ID :" + id + " Not Found"));
+
+        return ResponseEntity.ok(taskStatsService.userStats(id));
     }
 
     @PostMapping("/")
@@ -87,10 +107,9 @@ public class UserController {
     @DeleteMapping("/{id}")
     ResponseEntity<String> deleteUser(@PathVariable Long id) {
         LOGGER.info("Deleting user {}", id);
-        if (userRepository.findById(id).isEmpty()) {
+        if (!userService.deleteUser(id)) {
             throw new ResourceNotFoundException("User with ID :" + id + " Not Found");
         }
-        userService.deleteUser(id);
         return ResponseEntity.ok("User deleted");
     }
 
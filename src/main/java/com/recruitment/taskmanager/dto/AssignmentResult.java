@@ -0,0 +1,17 @@
+package com.recruitment.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of a bulk assignment: (task, user) pairs added or removed, and pairs which already were
+ * in the requested state.
+ */
+@Getter
+@AllArgsConstructor
+public class AssignmentResult {
+
+    private int changed;
+    private int unchanged;
+
+}
@@ -0,0 +1,18 @@
+package com.recruitment.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Task with its assignees as cached by {@code TaskService#findTaskById}, with the ETag of the
+ * versions it was read at. Shared by every request, so it holds an unmodifiable view rather than
+ * the entity.
+ */
+@Getter
+@AllArgsConstructor
+public class CachedTask {
+
+    private final TaskView task;
+    private final String eTag;
+
+}
@@ -0,0 +1,21 @@
+package com.recruitment.taskmanager.dto;
+
+import com.recruitment.taskmanager.enums.Status;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * What a bulk delete removed of a task, enough to take it out of the task counters.
+ */
+@Getter
+@AllArgsConstructor
+public class DeletedTask {
+
+    private Status status;
+    private LocalDate dueDate;
+    private List<Long> userIds;
+
+}
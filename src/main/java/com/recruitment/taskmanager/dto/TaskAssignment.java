@@ -0,0 +1,16 @@
+package com.recruitment.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One row of task_users written or removed by a bulk assignment.
+ */
+@Getter
+@AllArgsConstructor
+public class TaskAssignment {
+
+    private Long taskId;
+    private Long userId;
+
+}
@@ -0,0 +1,23 @@
+package com.recruitment.taskmanager.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Bulk assignment request: every listed user is assigned to, or removed from, every listed task.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class TaskAssignmentDto {
+
+    @NotEmpty
+    private List<Long> taskIds;
+    @NotEmpty
+    private List<Long> userIds;
+
+}
@@ -0,0 +1,29 @@
+package com.recruitment.taskmanager.dto;
+
+import com.recruitment.taskmanager.enums.BatchItemStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Result of one element of a bulk task creation, {@code index} points into the request array.
+ */
+@Getter
+@AllArgsConstructor
+public class TaskBatchItem {
+
+    private int index;
+    private BatchItemStatus status;
+    private Long id;
+    private List<String> errors;
+
+    public static TaskBatchItem created(int index, Long id) {
+        return new TaskBatchItem(index, BatchItemStatus.CREATED, id, List.of());
+    }
+
+    public static TaskBatchItem rejected(int index, List<String> errors) {
+        return new TaskBatchItem(index, BatchItemStatus.REJECTED, null, errors);
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.recruitment.taskmanager.dto;
+
+import com.recruitment.taskmanager.enums.Status;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * One row of the export cursor: a task joined with one of its assignees,
+ * or with no user at all when the task has none.
+ */
+@Getter
+@AllArgsConstructor
+public class TaskExportRow {
+
+    private Long taskId;
+    private String title;
+    private String description;
+    private Status status;
+    private LocalDate dueDate;
+    private Long userId;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private Integer age;
+
+    public TaskView toTaskView() {
+        return new TaskView(taskId, title, description, status, dueDate);
+    }
+
+    public UserView toUserView() {
+        return new UserView(userId, firstName, lastName, email, age);
+    }
+
+}
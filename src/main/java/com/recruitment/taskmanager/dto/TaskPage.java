@@ -0,0 +1,15 @@
+package com.recruitment.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class TaskPage {
+
+    private List<TaskView> tasks;
+    private String next;
+
+}
@@ -0,0 +1,22 @@
+package com.recruitment.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * One page of full-text search results, best match first. {@code total} is exact only when
+ * {@code totalExact} is set, otherwise it is a lower bound.
+ */
+@Getter
+@AllArgsConstructor
+public class TaskSearchPage {
+
+    private List<TaskView> tasks;
+    private long total;
+    private boolean totalExact;
+    private int page;
+    private int size;
+
+}
@@ -0,0 +1,18 @@
+package com.recruitment.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Number of tasks per status, and of tasks which are not completed and past their due date.
+ */
+@Getter
+@AllArgsConstructor
+public class TaskStats {
+
+    private long opened;
+    private long inProgress;
+    private long completed;
+    private long overdue;
+
+}
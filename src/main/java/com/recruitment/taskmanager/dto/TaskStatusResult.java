@@ -0,0 +1,19 @@
+package com.recruitment.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of a bulk status change: tasks moved to the new status, tasks already in it, tasks
+ * whose status cannot move to it and requested ids without a task.
+ */
+@Getter
+@AllArgsConstructor
+public class TaskStatusResult {
+
+    private int updated;
+    private int unchanged;
+    private int rejected;
+    private int notFound;
+
+}
@@ -0,0 +1,20 @@
+package com.recruitment.taskmanager.dto;
+
+import com.recruitment.taskmanager.enums.Status;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * Status of a task about to be changed in bulk, with the due date the task counters need.
+ */
+@Getter
+@AllArgsConstructor
+public class TaskStatusRow {
+
+    private Long id;
+    private Status status;
+    private LocalDate dueDate;
+
+}
@@ -0,0 +1,24 @@
+package com.recruitment.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One row of the task-user association, used to load the assignees of a whole page of tasks at once.
+ */
+@Getter
+@AllArgsConstructor
+public class TaskUserView {
+
+    private Long taskId;
+    private Long userId;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private int age;
+
+    public UserView toUserView() {
+        return new UserView(userId, firstName, lastName, email, age);
+    }
+
+}
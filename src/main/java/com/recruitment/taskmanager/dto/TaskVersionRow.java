@@ -0,0 +1,17 @@
+package com.recruitment.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Version of a task and of one of its assignees, enough to compute the task's ETag without loading it.
+ */
+@Getter
+@AllArgsConstructor
+public class TaskVersionRow {
+
+    private long taskVersion;
+    private Long userId;
+    private Long userVersion;
+
+}
@@ -0,0 +1,37 @@
+package com.recruitment.taskmanager.dto;
+
+import com.recruitment.taskmanager.enums.Status;
+import com.recruitment.taskmanager.model.Task;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-only projection of a {@link Task} serialized by the list endpoints. Unlike the entity
+ * it never triggers lazy loading, so serializing a page does not issue further queries.
+ */
+@Getter
+@AllArgsConstructor
+public class TaskView {
+
+    private Long id;
+    private String title;
+    private String description;
+    private Status status;
+    private List<UserView> users;
+    private LocalDate dueDate;
+
+    public TaskView(Long id, String title, String description, Status status, LocalDate dueDate) {
+        this(id, title, description, status, new ArrayList<>(), dueDate);
+    }
+
+    // the users list is unmodifiable, so the view can be shared once built
+    public static TaskView of(Task task) {
+        return new TaskView(task.getId(), task.getTitle(), task.getDescription(), task.getStatus(),
+                task.getUsers().stream().map(UserView::of).toList(), task.getDueDate());
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.recruitment.taskmanager.dto;
+
+import com.recruitment.taskmanager.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * One page of users. {@code total} is counted only when asked for and is {@code null} otherwise.
+ */
+@Getter
+@AllArgsConstructor
+public class UserPage {
+
+    private List<User> users;
+    private int page;
+    private int size;
+    private boolean hasNext;
+    private Long total;
+
+}
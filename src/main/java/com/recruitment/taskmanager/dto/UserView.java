@@ -0,0 +1,21 @@
+package com.recruitment.taskmanager.dto;
+
+import com.recruitment.taskmanager.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class UserView {
+
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private int age;
+
+    public static UserView of(User user) {
+        return new UserView(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail(), user.getAge());
+    }
+
+}
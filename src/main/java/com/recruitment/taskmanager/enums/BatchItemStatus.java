@@ -0,0 +1,5 @@
+package com.recruitment.taskmanager.enums;
+
+public enum BatchItemStatus {
+    CREATED, REJECTED
+}
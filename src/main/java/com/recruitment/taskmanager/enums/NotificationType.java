@@ -0,0 +1,5 @@
+package com.recruitment.taskmanager.enums;
+
+public enum NotificationType {
+    ADDED_TO_TASK, REMOVED_FROM_TASK, DUE_SOON, OVERDUE
+}
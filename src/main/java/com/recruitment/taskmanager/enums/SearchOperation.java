@@ -0,0 +1,28 @@
+package com.recruitment.taskmanager.enums;
+
+import java.util.Arrays;
+
+public enum SearchOperation {
+    MATCH(":"),
+    GREATER_THAN(">"),
+    GREATER_THAN_OR_EQUAL(">="),
+    LESS_THAN("<"),
+    LESS_THAN_OR_EQUAL("<=");
+
+    private final String symbol;
+
+    SearchOperation(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public static SearchOperation fromSymbol(String symbol) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.symbol.equals(symbol))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown search operation " + symbol));
+    }
+}
@@ -1,5 +1,13 @@
 package com.recruitment.taskmanager.enums;
 
 public enum Status {
-    OPENED, INPROGRESS, COMPLETED
+    OPENED, INPROGRESS, COMPLETED;
+
+    /**
+     * Whether a task may move from this status to {@code target}. A completed task can only be
+     * reopened; keeping the same status is not a transition.
+     */
+    public boolean canMoveTo(Status target) {
+        return this != target && !(this == COMPLETED && target == INPROGRESS);
+    }
 }
@@ -0,0 +1,22 @@
+package com.recruitment.taskmanager.events;
+
+import com.recruitment.taskmanager.dto.TaskView;
+import com.recruitment.taskmanager.enums.NotificationType;
+import com.recruitment.taskmanager.model.User;
+
+import java.util.List;
+
+/**
+ * Published by {@code TaskService} once per user after a bulk assignment, listing every task the
+ * user was added to or removed from, so the user gets a single email for the whole request.
+ */
+public record TaskAssignmentsEvent(NotificationType type, User recipient, List<TaskView> tasks) {
+
+    public static TaskAssignmentsEvent addedToTasks(User recipient, List<TaskView> tasks) {
+        return new TaskAssignmentsEvent(NotificationType.ADDED_TO_TASK, recipient, List.copyOf(tasks));
+    }
+
+    public static TaskAssignmentsEvent removedFromTasks(User recipient, List<TaskView> tasks) {
+        return new TaskAssignmentsEvent(NotificationType.REMOVED_FROM_TASK, recipient, List.copyOf(tasks));
+    }
+}
@@ -0,0 +1,20 @@
+package com.recruitment.taskmanager.events;
+
+import com.recruitment.taskmanager.model.Task;
+
+import java.time.LocalDate;
+
+/**
+ * Published by {@code TaskService} when a task is created or removed. The search index and
+ * the due date reminders apply it only after the publishing transaction commits.
+ */
+public record TaskChangedEvent(Long taskId, String title, String description, LocalDate dueDate, boolean deleted) {
+
+    public static TaskChangedEvent saved(Task task) {
+        return new TaskChangedEvent(task.getId(), task.getTitle(), task.getDescription(), task.getDueDate(), false);
+    }
+
+    public static TaskChangedEvent deleted(Long taskId) {
+        return new TaskChangedEvent(taskId, null, null, null, true);
+    }
+}
@@ -0,0 +1,40 @@
+package com.recruitment.taskmanager.events;
+
+import com.recruitment.taskmanager.enums.NotificationType;
+import com.recruitment.taskmanager.model.Task;
+import com.recruitment.taskmanager.model.User;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published by {@code TaskService} when users should be notified about a task change,
+ * and by {@code DueDateReminders} when a task is about to be or became overdue.
+ * Emails are sent only after the publishing transaction commits. {@code assignees} holds the
+ * first assignees of the task the added-to-task email lists, out of {@code assigneeCount}.
+ */
+public record TaskNotificationEvent(NotificationType type, Task task, List<User> recipients, List<User> assignees,
+                                    long assigneeCount) {
+
+    public static TaskNotificationEvent addedToTask(Task task, Collection<User> recipients) {
+        return addedToTask(task, recipients, List.copyOf(task.getUsers()), task.getUsers().size());
+    }
+
+    public static TaskNotificationEvent addedToTask(Task task, Collection<User> recipients, List<User> assignees,
+                                                    long assigneeCount) {
+        return new TaskNotificationEvent(NotificationType.ADDED_TO_TASK, task, List.copyOf(recipients),
+                List.copyOf(assignees), assigneeCount);
+    }
+
+    public static TaskNotificationEvent removedFromTask(Task task, User recipient) {
+        return new TaskNotificationEvent(NotificationType.REMOVED_FROM_TASK, task, List.of(recipient), List.of(), 0);
+    }
+
+    public static TaskNotificationEvent dueSoon(Task task) {
+        return new TaskNotificationEvent(NotificationType.DUE_SOON, task, List.copyOf(task.getUsers()), List.of(), 0);
+    }
+
+    public static TaskNotificationEvent overdue(Task task) {
+        return new TaskNotificationEvent(NotificationType.OVERDUE, task, List.copyOf(task.getUsers()), List.of(), 0);
+    }
+}
@@ -0,0 +1,11 @@
+package com.recruitment.taskmanager.events;
+
+import java.time.LocalDate;
+
+/**
+ * Published by {@code TaskService} when a task moves out of {@code COMPLETED}. The due date
+ * reminders of the task were dropped when it completed, so they are scheduled again once the
+ * publishing transaction commits.
+ */
+public record TaskReopenedEvent(Long taskId, LocalDate dueDate) {
+}
@@ -0,0 +1,10 @@
+package com.recruitment.taskmanager.events;
+
+import java.util.List;
+
+/**
+ * {@link TaskStatsEvent}s of one bulk change, published together so they are applied by a
+ * single listener call.
+ */
+public record TaskStatsBatchEvent(List<TaskStatsEvent> events) {
+}
@@ -0,0 +1,57 @@
+package com.recruitment.taskmanager.events;
+
+import com.recruitment.taskmanager.dto.DeletedTask;
+import com.recruitment.taskmanager.dto.TaskStatusRow;
+import com.recruitment.taskmanager.dto.TaskView;
+import com.recruitment.taskmanager.enums.Status;
+import com.recruitment.taskmanager.model.Task;
+import com.recruitment.taskmanager.model.User;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published by {@code TaskService} when a task enters or leaves the task counters, either as
+ * a whole ({@code countTask}) or only for some of its assignees. A status change is published
+ * as the removal of the old state followed by the addition of the new one.
+ */
+public record TaskStatsEvent(Status status, LocalDate dueDate, List<Long> userIds, boolean countTask, int delta) {
+
+    public static TaskStatsEvent added(Task task) {
+        return new TaskStatsEvent(task.getStatus(), task.getDueDate(), userIds(task.getUsers()), true, 1);
+    }
+
+    public static TaskStatsEvent removed(Task task) {
+        return new TaskStatsEvent(task.getStatus(), task.getDueDate(), userIds(task.getUsers()), true, -1);
+    }
+
+    public static TaskStatsEvent removed(DeletedTask task) {
+        return new TaskStatsEvent(task.getStatus(), task.getDueDate(), task.getUserIds(), true, -1);
+    }
+
+    public static List<TaskStatsEvent> statusChanged(TaskStatusRow task, Status status, List<Long> userIds) {
+        return List.of(new TaskStatsEvent(task.getStatus(), task.getDueDate(), userIds, true, -1),
+                new TaskStatsEvent(status, task.getDueDate(), userIds, true, 1));
+    }
+
+    public static TaskStatsEvent assigned(Task task, User user) {
+        return new TaskStatsEvent(task.getStatus(), task.getDueDate(), List.of(user.getId()), false, 1);
+    }
+
+    public static TaskStatsEvent unassigned(Task task, User user) {
+        return new TaskStatsEvent(task.getStatus(), task.getDueDate(), List.of(user.getId()), false, -1);
+    }
+
+    public static TaskStatsEvent assigned(TaskView task, List<Long> userIds) {
+        return new TaskStatsEvent(task.getStatus(), task.getDueDate(), userIds, false, 1);
+    }
+
+    public static TaskStatsEvent unassigned(TaskView task, List<Long> userIds) {
+        return new TaskStatsEvent(task.getStatus(), task.getDueDate(), userIds, false, -1);
+    }
+
+    private static List<Long> userIds(Collection<User> users) {
+        return users.stream().map(User::getId).toList();
+    }
+}
@@ -1,6 +1,9 @@
 package com.recruitment.taskmanager.exceptions;
 
 import jakarta.mail.MessagingException;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -30,6 +33,39 @@ public class AppExceptionController {
         return new ResponseEntity<>("User already existed in task", HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(value = InvalidCursorException.class)
+    public ResponseEntity<Object> exception(InvalidCursorException exception) {
+        return new ResponseEntity<>("Invalid cursor", HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(value = InvalidSearchException.class)
+    public ResponseEntity<Object> exception(InvalidSearchException exception) {
+        return new ResponseEntity<>(exception.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(value = SearchIndexNotReadyException.class)
+    public ResponseEntity<Object> exception(SearchIndexNotReadyException exception) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(exception.getMessage());
+    }
+
+    @ExceptionHandler(value = BatchTooLargeException.class)
+    public ResponseEntity<Object> exception(BatchTooLargeException exception) {
+        return new ResponseEntity<>(exception.getMessage(), HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
+    @ExceptionHandler(value = ConcurrencyFailureException.class)
+    public ResponseEntity<Object> exception(ConcurrencyFailureException exception) {
+        return new ResponseEntity<>("Resource was modified concurrently, reload and retry", HttpStatus.CONFLICT);
+    }
+
+    // a key of task_users rejected a pair written concurrently with the same change
+    @ExceptionHandler(value = DataIntegrityViolationException.class)
+    public ResponseEntity<Object> exception(DataIntegrityViolationException exception) {
+        return new ResponseEntity<>("Resource was modified concurrently, reload and retry", HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(value = DateTimeParseException.class)
     public ResponseEntity<Object> exception(DateTimeParseException ex) {
         return new ResponseEntity<>("Wrong Date format", HttpStatus.BAD_REQUEST);
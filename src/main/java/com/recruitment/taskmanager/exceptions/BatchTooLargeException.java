@@ -0,0 +1,8 @@
+package com.recruitment.taskmanager.exceptions;
+
+
+public class BatchTooLargeException extends RuntimeException {
+    public BatchTooLargeException(String s) {
+        super(s);
+    }
+}
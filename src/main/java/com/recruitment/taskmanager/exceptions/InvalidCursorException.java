@@ -0,0 +1,8 @@
+package com.recruitment.taskmanager.exceptions;
+
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String s) {
+        super(s);
+    }
+}
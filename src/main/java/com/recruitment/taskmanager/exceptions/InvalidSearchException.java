@@ -0,0 +1,8 @@
+package com.recruitment.taskmanager.exceptions;
+
+
+public class InvalidSearchException extends RuntimeException {
+    public InvalidSearchException(String s) {
+        super(s);
+    }
+}
@@ -0,0 +1,8 @@
+package com.recruitment.taskmanager.exceptions;
+
+
+public class SearchIndexNotReadyException extends RuntimeException {
+    public SearchIndexNotReadyException(String s) {
+        super(s);
+    }
+}
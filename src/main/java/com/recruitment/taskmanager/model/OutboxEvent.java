@@ -0,0 +1,42 @@
+package com.recruitment.taskmanager.model;
+
+import com.recruitment.taskmanager.enums.NotificationType;
+import com.recruitment.taskmanager.enums.OutboxStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+
+/**
+ * Notification email waiting to be sent, written in the same transaction as the task change
+ * that caused it. The rendered {@link Email} is kept as JSON so it can be delivered (or replayed)
+ * even if the task has been modified or deleted in the meantime.
+ */
+@Entity
+@Table(name = "notification_outbox")
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_outbox_seq")
+    @SequenceGenerator(name = "notification_outbox_seq", sequenceName = "notification_outbox_seq", allocationSize = 50)
+    private Long id;
+    @Enumerated(EnumType.STRING)
+    private NotificationType type;
+    private Long taskId;
+    private String recipient;
+    @Column(length = 10000)
+    private String payload;
+    @Enumerated(EnumType.STRING)
+    private OutboxStatus status;
+    private int attempts;
+    private Instant createdAt;
+    private Instant nextAttemptAt;
+    private Instant sentAt;
+
+}
@@ -1,5 +1,6 @@
 package com.recruitment.taskmanager.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.recruitment.taskmanager.enums.Status;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
@@ -7,20 +8,23 @@ import jakarta.validation.constraints.Size;
 import lombok.*;
 import java.io.Serializable;
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 
 @Entity
+@NamedEntityGraph(name = "Task.users", attributeNodes = @NamedAttributeNode("users"))
 @Setter
 @Getter
 @NoArgsConstructor
-@AllArgsConstructor
 @ToString
 public class Task implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    // pooled ids start above the ones handed out by the former identity column
+    @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", initialValue = 1000, allocationSize = 50)
     private Long Id;
     @NotNull
     @Size(min = 2, max = 100)
@@ -30,9 +34,24 @@ public class Task implements Serializable {
     private String description;
     @Enumerated(EnumType.STRING)
     private Status status;
+    // a set, not a bag: removing one assignee deletes only its join row instead of rewriting all of them
     @ManyToMany
-    private List<User> users = new ArrayList<>();
+    @OrderBy("id")
+    private Set<User> users = new LinkedHashSet<>();
     @Temporal(TemporalType.DATE)
     private LocalDate dueDate;
+    // bumped on every change, including assignments; exposed as the ETag
+    @Version
+    @JsonIgnore
+    private long version;
+
+    public Task(Long id, String title, String description, Status status, Collection<User> users, LocalDate dueDate) {
+        this.Id = id;
+        this.title = title;
+        this.description = description;
+        this.status = status;
+        this.users = new LinkedHashSet<>(users);
+        this.dueDate = dueDate;
+    }
 
 }
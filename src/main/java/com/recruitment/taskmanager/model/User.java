@@ -10,6 +10,7 @@ import jakarta.validation.constraints.Size;
 import lombok.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 
 @Entity
@@ -17,11 +18,12 @@ import java.util.List;
 @Setter
 @Getter
 @NoArgsConstructor
-@AllArgsConstructor
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    // pooled ids start above the ones handed out by the former identity column
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", initialValue = 1000, allocationSize = 50)
     private Long Id;
     @NotNull
     @Size(min = 2, max = 100)
@@ -38,6 +40,34 @@ public class User {
     @JsonIgnore
     @ManyToMany(mappedBy = "users")
     List<Task> tasks = new ArrayList<>();
+    @Version
+    @JsonIgnore
+    private long version;
+
+    public User(Long id, String firstName, String lastName, String email, int age, List<Task> tasks) {
+        this.Id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.age = age;
+        this.tasks = tasks;
+    }
+
+    // by id, so a user equals its lazy proxy. Tasks reference only saved users, so the id and the
+    // hash no longer change once a user is in a task's set; a constant hash would make every
+    // lookup in a set of thousands of assignees linear
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof User other && getId() != null && getId().equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(getId());
+    }
 
     @Override
     public String toString() {
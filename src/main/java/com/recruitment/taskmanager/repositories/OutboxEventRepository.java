@@ -0,0 +1,42 @@
+package com.recruitment.taskmanager.repositories;
+
+import com.recruitment.taskmanager.enums.OutboxStatus;
+import com.recruitment.taskmanager.model.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.CrudRepository;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface OutboxEventRepository extends CrudRepository<OutboxEvent, Long> {
+
+    /**
+     * Locks the next batch of due events. A lock timeout of -2 is rendered as
+     * {@code FOR UPDATE SKIP LOCKED} on databases supporting it, so concurrent pollers
+     * claim disjoint batches; elsewhere it falls back to a plain {@code FOR UPDATE}.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select o from OutboxEvent o where o.status = com.recruitment.taskmanager.enums.OutboxStatus.PENDING"
+            + " and o.nextAttemptAt <= :now order by o.id")
+    List<OutboxEvent> claimBatch(Instant now, Pageable pageable);
+
+    long countByStatus(OutboxStatus status);
+
+    @Modifying
+    @Query("update OutboxEvent o set o.status = com.recruitment.taskmanager.enums.OutboxStatus.PENDING,"
+            + " o.attempts = 0, o.nextAttemptAt = :now"
+            + " where o.status = com.recruitment.taskmanager.enums.OutboxStatus.FAILED")
+    int replayFailed(Instant now);
+
+    @Modifying
+    @Query("delete from OutboxEvent o where o.status = com.recruitment.taskmanager.enums.OutboxStatus.SENT"
+            + " and o.sentAt < :sentBefore")
+    int deleteSentBefore(Instant sentBefore);
+}
@@ -1,23 +1,90 @@
 package com.recruitment.taskmanager.repositories;
 
+import com.recruitment.taskmanager.dto.TaskExportRow;
+import com.recruitment.taskmanager.dto.TaskUserView;
+import com.recruitment.taskmanager.dto.TaskVersionRow;
+import com.recruitment.taskmanager.dto.TaskView;
 import com.recruitment.taskmanager.enums.Status;
 import com.recruitment.taskmanager.model.Task;
+import com.recruitment.taskmanager.model.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.format.annotation.DateTimeFormat;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface TaskRepository extends CrudRepository<Task, Long> , JpaSpecificationExecutor<Task> {
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
-    @Query("SELECT c FROM Task c JOIN c.users u WHERE (:title is null or c.title = :title) and (:status is null"
-            + " or c.status = :status) and  (:userId is null or u.id = :userId)  and "
-            + "(:dateBefore is null or c.dueDate < :dateBefore)")
-    List<Task> findTasks(String title, Status status, Long userId,
-                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateBefore);
+public interface TaskRepository extends CrudRepository<Task, Long> , JpaSpecificationExecutor<Task>, TaskRepositoryCustom {
 
+    @Query("SELECT new com.recruitment.taskmanager.dto.TaskView(c.id, c.title, c.description, c.status, c.dueDate)"
+            + " FROM Task c WHERE c.id IN :ids")
+    List<TaskView> findViewsByIdIn(Collection<Long> ids);
 
+    // write-locks the rows in id order, so batches over overlapping tasks queue instead of deadlocking
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.recruitment.taskmanager.dto.TaskView(c.id, c.title, c.description, c.status, c.dueDate)"
+            + " FROM Task c WHERE c.id IN :ids ORDER BY c.id")
+    List<TaskView> lockViewsByIdIn(Collection<Long> ids);
+
+    @Query("SELECT new com.recruitment.taskmanager.dto.TaskUserView(t.id, u.id, u.firstName, u.lastName, u.email, u.age)"
+            + " FROM Task t JOIN t.users u WHERE t.id IN :taskIds ORDER BY t.id, u.id")
+    List<TaskUserView> findUsersOfTasks(Collection<Long> taskIds);
+
+    @Query("SELECT new com.recruitment.taskmanager.dto.TaskVersionRow(t.version, u.id, u.version)"
+            + " FROM Task t LEFT JOIN t.users u WHERE t.id = :id")
+    List<TaskVersionRow> findVersionsById(Long id);
+
+    // first assignees of a task for its notification, without loading the whole set
+    @Query(value = "SELECT u FROM Task t JOIN t.users u WHERE t.id = :taskId ORDER BY u.id",
+            countQuery = "SELECT COUNT(u) FROM Task t JOIN t.users u WHERE t.id = :taskId")
+    Page<User> findUsersOfTask(Long taskId, Pageable pageable);
+
+    /**
+     * Forward-only cursor over every task joined with its assignees, ordered by task id so
+     * rows of one task are adjacent. Must be consumed and closed inside a transaction.
+     */
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT new com.recruitment.taskmanager.dto.TaskExportRow(t.id, t.title, t.description, t.status, t.dueDate,"
+            + " u.id, u.firstName, u.lastName, u.email, u.age)"
+            + " FROM Task t LEFT JOIN t.users u ORDER BY t.id, u.id")
+    Stream<TaskExportRow> streamAllWithUsers();
+
+    // bumps the version so ETags of the changed tasks go stale
+    @Modifying
+    @Query("update Task t set t.status = :status, t.version = t.version + 1 where t.id in :ids")
+    int updateStatus(Collection<Long> ids, Status status);
+
+    @Modifying
+    @Query("update Task t set t.version = t.version + 1 where t.id in :ids")
+    int incrementVersions(Collection<Long> ids);
+
+    @Override
+    @EntityGraph("Task.users")
+    Optional<Task> findById(Long id);
+
+    // the task alone, write-locked; its assignees stay unloaded
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Task t where t.id = :id")
+    Optional<Task> findLockedById(Long id);
+
+    @EntityGraph("Task.users")
+    List<Task> findWithUsersByIdIn(Collection<Long> ids);
+
+    @EntityGraph("Task.users")
     @Query("select a from Task a where a.dueDate < :dueDate")
     List<Task> findAllWithDueDateExpired(@DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDate);
 }
@@ -0,0 +1,52 @@
+package com.recruitment.taskmanager.repositories;
+
+import com.recruitment.taskmanager.dto.DeletedTask;
+import com.recruitment.taskmanager.dto.TaskAssignment;
+import com.recruitment.taskmanager.dto.TaskStatusRow;
+import com.recruitment.taskmanager.dto.TaskView;
+import com.recruitment.taskmanager.model.Task;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface TaskRepositoryCustom {
+
+    /**
+     * Keyset (seek) query ordered by (dueDate, id), tasks without due date first. The cursor
+     * position is part of the specification, so every page costs the same and no count query
+     * is issued. Assignees are not loaded, see {@link TaskRepository#findUsersOfTasks}.
+     */
+    List<TaskView> findTasks(Specification<Task> specification, int limit);
+
+    /**
+     * Deletes the task and its assignments with bulk statements, without loading the task entity.
+     * The status, due date and assignees the task counters need are read first by one query, with
+     * the task row write-locked so they cannot change before the delete. An empty result means
+     * there was no such task: the read found no row, or the delete removed none.
+     * Entities of the task already in the persistence context are not detached.
+     */
+    Optional<DeletedTask> deleteWithAssignments(Long id);
+
+    /**
+     * Next {@code limit} tasks matching the specification in id order, after {@code afterId}
+     * when given. The rows stay write-locked until the transaction ends, so their status cannot
+     * change before a bulk update of them.
+     */
+    List<TaskStatusRow> lockStatuses(Specification<Task> specification, Long afterId, int limit);
+
+    /**
+     * Assigns every user to every task with one INSERT ... SELECT which skips pairs that are
+     * already assigned, and returns the inserted pairs. The pairs are read before the insert, so
+     * the caller must hold write locks on the task rows; the primary key of task_users rejects
+     * duplicates written by anyone who does not.
+     */
+    List<TaskAssignment> insertAssignments(Collection<Long> taskIds, Collection<Long> userIds);
+
+    /**
+     * Removes every user from every task with one DELETE and returns the removed pairs. As with
+     * {@link #insertAssignments}, the caller must hold write locks on the task rows.
+     */
+    List<TaskAssignment> deleteAssignments(Collection<Long> taskIds, Collection<Long> userIds);
+}
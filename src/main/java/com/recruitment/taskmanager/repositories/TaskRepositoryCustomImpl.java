@@ -0,0 +1,143 @@
+package com.recruitment.taskmanager.repositories;
+
+import com.recruitment.taskmanager.dto.DeletedTask;
+import com.recruitment.taskmanager.dto.TaskAssignment;
+import com.recruitment.taskmanager.dto.TaskStatusRow;
+import com.recruitment.taskmanager.dto.TaskView;
+import com.recruitment.taskmanager.enums.Status;
+import com.recruitment.taskmanager.model.Task;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.query.criteria.JpaOrder;
+import org.hibernate.query.sqm.NullPrecedence;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    TaskRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<TaskView> findTasks(Specification<Task> specification, int limit) {
+
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskView> query = builder.createQuery(TaskView.class);
+        Root<Task> root = query.from(Task.class);
+
+        query.select(builder.construct(TaskView.class,
+                root.get("id"), root.get("title"), root.get("description"), root.get("status"), root.get("dueDate")));
+        query.where(specification.toPredicate(root, query, builder));
+        query.orderBy(((JpaOrder) builder.asc(root.get("dueDate"))).nullPrecedence(NullPrecedence.FIRST),
+                builder.asc(root.get("id")));
+
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public List<TaskStatusRow> lockStatuses(Specification<Task> specification, Long afterId, int limit) {
+
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskStatusRow> query = builder.createQuery(TaskStatusRow.class);
+        Root<Task> root = query.from(Task.class);
+
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (afterId != null) {
+            predicate = builder.and(predicate, builder.greaterThan(root.get("id"), afterId));
+        }
+        query.select(builder.construct(TaskStatusRow.class, root.get("id"), root.get("status"), root.get("dueDate")));
+        query.where(predicate);
+        query.orderBy(builder.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Optional<DeletedTask> deleteWithAssignments(Long id) {
+
+        // one row per assignee, or a single row without user for a task nobody is assigned to
+        List<Tuple> rows = entityManager.createQuery(
+                        "select t.status as status, t.dueDate as dueDate, u.id as userId"
+                                + " from Task t left join t.users u where t.id = :id", Tuple.class)
+                .setParameter("id", id)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        // Hibernate deletes the task_users rows of the task before the task itself
+        int deleted = entityManager.createQuery("delete from Task t where t.id = :id")
+                .setParameter("id", id)
+                .executeUpdate();
+        if (deleted == 0) {
+            return Optional.empty();
+        }
+
+        Tuple task = rows.get(0);
+        List<Long> userIds = rows.stream()
+                .map(row -> row.get("userId", Long.class))
+                .filter(Objects::nonNull)
+                .toList();
+        return Optional.of(new DeletedTask(task.get("status", Status.class), task.get("dueDate", LocalDate.class), userIds));
+    }
+
+    @Override
+    public List<TaskAssignment> insertAssignments(Collection<Long> taskIds, Collection<Long> userIds) {
+        String missingPairs = " FROM task t CROSS JOIN users u WHERE t.id IN (:taskIds) AND u.id IN (:userIds)"
+                + " AND NOT EXISTS (SELECT 1 FROM task_users tu WHERE tu.tasks_id = t.id AND tu.users_id = u.id)";
+        return changeAssignments("SELECT t.id AS tasks_id, u.id AS users_id" + missingPairs,
+                "INSERT INTO task_users (tasks_id, users_id) SELECT t.id, u.id" + missingPairs, taskIds, userIds);
+    }
+
+    @Override
+    public List<TaskAssignment> deleteAssignments(Collection<Long> taskIds, Collection<Long> userIds) {
+        String assignedPairs = " FROM task_users WHERE tasks_id IN (:taskIds) AND users_id IN (:userIds)";
+        return changeAssignments("SELECT tasks_id, users_id" + assignedPairs, "DELETE" + assignedPairs, taskIds, userIds);
+    }
+
+    /**
+     * Reads the pairs the statement is going to change, then runs it. With the task rows locked
+     * the pairs cannot change in between; a row count that does not match means a writer got past
+     * the locks, and the transaction is failed rather than reporting the wrong pairs.
+     */
+    @SuppressWarnings("unchecked")
+    private List<TaskAssignment> changeAssignments(String select, String update, Collection<Long> taskIds,
+                                                   Collection<Long> userIds) {
+        List<Object[]> rows = entityManager.createNativeQuery(select)
+                .unwrap(NativeQuery.class)
+                .addScalar("tasks_id", Long.class)
+                .addScalar("users_id", Long.class)
+                .setParameterList("taskIds", taskIds)
+                .setParameterList("userIds", userIds)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        int changed = entityManager.createNativeQuery(update)
+                .setParameter("taskIds", taskIds)
+                .setParameter("userIds", userIds)
+                .executeUpdate();
+        if (changed != rows.size()) {
+            throw new ConcurrencyFailureException("Assignments of tasks " + taskIds + " changed concurrently");
+        }
+        return rows.stream().map(row -> new TaskAssignment((Long) row[0], (Long) row[1])).toList();
+    }
+}
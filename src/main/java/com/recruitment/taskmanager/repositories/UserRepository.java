@@ -1,10 +1,22 @@
 package com.recruitment.taskmanager.repositories;
 
 import com.recruitment.taskmanager.model.User;
+import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
-import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Optional;
 
-public interface UserRepository extends CrudRepository<User, Long>, JpaSpecificationExecutor<User> {
+
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User>, UserRepositoryCustom {
+
+    @Query("SELECT u.version FROM User u WHERE u.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    // Hibernate deletes the user's task_users rows with one statement of its own before the user
+    @Modifying
+    @Query("delete from User u where u.id = :id")
+    int deleteUserById(Long id);
 
 }
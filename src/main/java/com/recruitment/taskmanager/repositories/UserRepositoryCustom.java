@@ -0,0 +1,15 @@
+package com.recruitment.taskmanager.repositories;
+
+import com.recruitment.taskmanager.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Offset page without a count query: one row more than the page size is fetched to tell
+     * whether a next page exists.
+     */
+    Slice<User> findUsers(Specification<User> specification, Pageable pageable);
+}
@@ -0,0 +1,232 @@
+package com.recruitment.taskmanager.service;
+
+import com.recruitment.taskmanager.enums.Status;
+import com.recruitment.taskmanager.events.TaskChangedEvent;
+import com.recruitment.taskmanager.events.TaskNotificationEvent;
+import com.recruitment.taskmanager.events.TaskReopenedEvent;
+import com.recruitment.taskmanager.model.Task;
+import com.recruitment.taskmanager.repositories.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends "due soon" and "overdue" notifications without polling the task table. Reminder times
+ * of open tasks are kept in a {@link TimerWheel}: loaded on startup and added whenever
+ * {@code TaskService} saves or reopens a task. Every tick the expired reminders are checked against the
+ * current state of their tasks, so reminders of deleted, completed or rescheduled tasks are
+ * dropped, and the rest go to the notification outbox in batches.
+ * Reminders which fell due while the application was down are not sent.
+ */
+@Component
+public class DueDateReminders {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DueDateReminders.class);
+
+    // payload is the task id shifted left by one, the lowest bit tells the reminder kind
+    private static final long DUE_SOON = 0;
+    private static final long OVERDUE = 1;
+
+    private final TaskRepository taskRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration dueSoon;
+    private final long tickMillis;
+    private final int batchSize;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final TimerWheel wheel;
+
+    private final Counter dueSoonCounter;
+    private final Counter overdueCounter;
+
+    private ScheduledExecutorService executor;
+
+    public DueDateReminders(TaskRepository taskRepository, ApplicationEventPublisher eventPublisher,
+                            JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${notifications.reminders.enabled:true}") boolean enabled,
+                            @Value("${notifications.reminders.due-soon-hours:24}") long dueSoonHours,
+                            @Value("${notifications.reminders.tick-seconds:60}") long tickSeconds,
+                            @Value("${notifications.batch-size:50}") int batchSize) {
+        this.taskRepository = taskRepository;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.dueSoon = Duration.ofHours(dueSoonHours);
+        this.tickMillis = TimeUnit.SECONDS.toMillis(tickSeconds);
+        this.batchSize = batchSize;
+        this.wheel = new TimerWheel(tick(Instant.now()));
+
+        Gauge.builder("notifications.reminders.pending", this, DueDateReminders::pending)
+                .description("Due date reminders waiting in the timer wheel")
+                .register(meterRegistry);
+        this.dueSoonCounter = Counter.builder("notifications.reminders").tag("type", "due_soon").register(meterRegistry);
+        this.overdueCounter = Counter.builder("notifications.reminders").tag("type", "overdue").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        reload();
+        executor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("due-date-reminders-"));
+        executor.scheduleAtFixedRate(() -> {
+            try {
+                fireDue(Instant.now());
+            } catch (RuntimeException e) {
+                LOGGER.error("Firing due date reminders failed", e);
+            }
+        }, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Schedules the reminders of every open task which is not due yet. Reads only ids and due
+     * dates, so a million tasks load in seconds.
+     *
+     * @return number of tasks scheduled
+     */
+    public int reload() {
+        long started = System.currentTimeMillis();
+        int[] loaded = {0};
+        jdbcTemplate.query("SELECT id, due_date FROM task WHERE due_date >= ? AND status <> ?",
+                resultSet -> {
+                    schedule(resultSet.getLong(1), resultSet.getDate(2).toLocalDate());
+                    loaded[0]++;
+                },
+                Date.valueOf(LocalDate.now(zone)), Status.COMPLETED.name());
+        LOGGER.info("Scheduled due date reminders of {} tasks in {} ms", loaded[0], System.currentTimeMillis() - started);
+        return loaded[0];
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (event.deleted() || event.taskId() == null || event.dueDate() == null) {
+            return;
+        }
+        schedule(event.taskId(), event.dueDate());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskReopened(TaskReopenedEvent event) {
+        if (event.dueDate() != null) {
+            schedule(event.taskId(), event.dueDate());
+        }
+    }
+
+    public int pending() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    /**
+     * Expires the reminders due up to {@code now} and writes the notifications of the ones
+     * still valid to the outbox.
+     *
+     * @return number of notifications sent
+     */
+    int fireDue(Instant now) {
+        Map<Long, Long> expired = new LinkedHashMap<>();
+        synchronized (wheel) {
+            wheel.advanceTo(tick(now), (deadline, payload) -> expired.put(payload, deadline));
+        }
+        if (expired.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> payloads = new ArrayList<>(expired.keySet());
+        int sent = 0;
+        for (int from = 0; from < payloads.size(); from += batchSize) {
+            List<Long> batch = payloads.subList(from, Math.min(from + batchSize, payloads.size()));
+            Integer batchSent = transactionTemplate.execute(status -> sendReminders(batch, expired));
+            sent += batchSent != null ? batchSent : 0;
+        }
+        return sent;
+    }
+
+    private int sendReminders(List<Long> payloads, Map<Long, Long> deadlines) {
+        Map<Long, Task> tasks = new LinkedHashMap<>();
+        taskRepository.findWithUsersByIdIn(payloads.stream().map(payload -> payload >>> 1).distinct().toList())
+                .forEach(task -> tasks.put(task.getId(), task));
+
+        int sent = 0;
+        for (Long payload : payloads) {
+            Task task = tasks.get(payload >>> 1);
+            long kind = payload & 1;
+            if (task == null || task.getStatus() == Status.COMPLETED || task.getDueDate() == null
+                    || tick(remindAt(task.getDueDate(), kind)) != deadlines.get(payload)) {
+                continue;
+            }
+            if (kind == DUE_SOON) {
+                eventPublisher.publishEvent(TaskNotificationEvent.dueSoon(task));
+                dueSoonCounter.increment();
+            } else {
+                eventPublisher.publishEvent(TaskNotificationEvent.overdue(task));
+                overdueCounter.increment();
+            }
+            sent++;
+        }
+        return sent;
+    }
+
+    private void schedule(long taskId, LocalDate dueDate) {
+        Instant now = Instant.now();
+        synchronized (wheel) {
+            for (long kind : new long[]{DUE_SOON, OVERDUE}) {
+                Instant remindAt = remindAt(dueDate, kind);
+                if (remindAt.isAfter(now)) {
+                    wheel.schedule(tick(remindAt), taskId << 1 | kind);
+                }
+            }
+        }
+    }
+
+    // due soon some hours before the due date starts, overdue once the due date is over
+    private Instant remindAt(LocalDate dueDate, long kind) {
+        return kind == DUE_SOON
+                ? dueDate.atStartOfDay(zone).toInstant().minus(dueSoon)
+                : dueDate.plusDays(1).atStartOfDay(zone).toInstant();
+    }
+
+    private long tick(Instant instant) {
+        return Math.floorDiv(instant.toEpochMilli(), tickMillis);
+    }
+}
@@ -0,0 +1,69 @@
+package com.recruitment.taskmanager.service;
+
+import com.recruitment.taskmanager.dto.TaskVersionRow;
+import com.recruitment.taskmanager.model.Task;
+import com.recruitment.taskmanager.model.User;
+
+import java.util.List;
+
+/**
+ * Strong ETags derived from the {@code @Version} columns. A task is serialized together with its
+ * assignees, so its tag covers their versions too.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(User user) {
+        return user(user.getVersion());
+    }
+
+    public static String of(Task task) {
+        long assignees = 0;
+        for (User user : task.getUsers()) {
+            assignees += assignee(user.getId(), user.getVersion());
+        }
+        return task(task.getVersion(), assignees);
+    }
+
+    static String of(List<TaskVersionRow> rows) {
+        long assignees = 0;
+        for (TaskVersionRow row : rows) {
+            if (row.getUserId() != null) {
+                assignees += assignee(row.getUserId(), row.getUserVersion());
+            }
+        }
+        return task(rows.get(0).getTaskVersion(), assignees);
+    }
+
+    /**
+     * Whether an {@code If-None-Match} header matches {@code eTag}, using the weak comparison RFC 9110 requires for it.
+     */
+    public static boolean matches(String ifNoneMatch, String eTag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.strip();
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static String user(long version) {
+        return quote(Long.toString(version));
+    }
+
+    // order independent, a new version of any assignee changes the sum
+    private static long assignee(long userId, long userVersion) {
+        return (userId * 0x9E3779B97F4A7C15L) ^ userVersion;
+    }
+
+    private static String task(long version, long assignees) {
+        return quote(assignees == 0 ? Long.toString(version) : version + "-" + Long.toHexString(assignees));
+    }
+
+    private static String quote(String tag) {
+        return '"' + tag + '"';
+    }
+}
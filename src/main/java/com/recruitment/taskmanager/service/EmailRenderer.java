@@ -0,0 +1,53 @@
+package com.recruitment.taskmanager.service;
+
+import com.recruitment.taskmanager.model.Email;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.HtmlUtils;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Renders the HTML bodies of notification emails. Emails about one task differ only in the
+ * recipient name, so each distinct template and set of task properties is processed once with a
+ * placeholder name, and every recipient gets a copy with their escaped name filled in.
+ */
+@Component
+public class EmailRenderer {
+
+    static final String NAME = "name";
+
+    private final TemplateEngine templateEngine;
+    // cannot occur in task properties by accident and is left untouched by HTML escaping
+    private final String namePlaceholder = "{{" + UUID.randomUUID() + "}}";
+
+    public EmailRenderer(TemplateEngine templateEngine) {
+        this.templateEngine = templateEngine;
+    }
+
+    public String render(Email email) {
+        return render(List.of(email)).get(0);
+    }
+
+    /**
+     * @return HTML bodies in the order of {@code emails}
+     */
+    public List<String> render(List<Email> emails) {
+        Map<List<Object>, String> bodies = new HashMap<>();
+        List<String> rendered = new ArrayList<>(emails.size());
+        for (Email email : emails) {
+            Map<String, Object> properties = new HashMap<>(email.getProperties());
+            Object name = properties.put(NAME, namePlaceholder);
+            String body = bodies.computeIfAbsent(List.of(email.getTemplate(), properties),
+                    key -> templateEngine.process(email.getTemplate(), new Context(Locale.getDefault(), properties)));
+            rendered.add(body.replace(namePlaceholder, name != null ? HtmlUtils.htmlEscape(name.toString()) : ""));
+        }
+        return rendered;
+    }
+}
@@ -1,85 +1,173 @@
 package com.recruitment.taskmanager.service;
 
+import com.recruitment.taskmanager.dto.TaskView;
+import com.recruitment.taskmanager.enums.NotificationType;
+import com.recruitment.taskmanager.events.TaskAssignmentsEvent;
+import com.recruitment.taskmanager.events.TaskNotificationEvent;
 import com.recruitment.taskmanager.model.Email;
 import com.recruitment.taskmanager.model.Task;
 import com.recruitment.taskmanager.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Component;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
 
 import java.nio.charset.StandardCharsets;
-import java.time.LocalDate;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 @Component
 public class EmailService  {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(EmailService.class);
+
+    // emails list at most this many users or tasks and count the rest, so outbox payloads stay bounded
+    static final int MAX_LISTED = 10;
+
     @Value("${spring.mail.username}") private String sender;
 
     private JavaMailSender emailSender;
 
-    private final TemplateEngine templateEngine;
+    private final EmailRenderer emailRenderer;
 
-    public EmailService(JavaMailSender emailSender, TemplateEngine templateEngine) {
+    private final MeterRegistry meterRegistry;
+
+    public EmailService(JavaMailSender emailSender, EmailRenderer emailRenderer, MeterRegistry meterRegistry) {
         this.emailSender = emailSender;
-        this.templateEngine = templateEngine;
+        this.emailRenderer = emailRenderer;
+        this.meterRegistry = meterRegistry;
     }
 
     public void sendMail(Email email) throws MessagingException {
 
-        MimeMessage message = emailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(message, MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED, StandardCharsets.UTF_8.name());
-        Context context = new Context();
-        context.setVariables(email.getProperties());
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            emailSender.send(createMimeMessage(email, emailRenderer.render(email)));
+            outcome = "success";
+        } finally {
+            sample.stop(sendTimer("sendMail", outcome));
+        }
+    }
 
-        helper.setFrom(email.getFrom());
-        helper.setTo(email.getTo());
-        helper.setSubject(email.getSubject());
-        String html = templateEngine.process(email.getTemplate(), context);
-        helper.setText(html, true);
+    /**
+     * Sends all emails over a single SMTP connection.
+     *
+     * @return emails which could not be delivered
+     */
+    public List<Email> sendBatch(List<Email> emails) {
 
-        emailSender.send(message);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<Email> failed = new ArrayList<>();
+        try {
+            sendAll(emails, failed);
+        } finally {
+            sample.stop(sendTimer("sendBatch", failed.isEmpty() ? "success" : "failure"));
         }
+        return failed;
+    }
 
+    private void sendAll(List<Email> emails, List<Email> failed) {
+
+        List<String> bodies = emailRenderer.render(emails);
+        Map<MimeMessage, Email> messages = new LinkedHashMap<>();
+        for (int i = 0; i < emails.size(); i++) {
+            Email email = emails.get(i);
+            try {
+                messages.put(createMimeMessage(email, bodies.get(i)), email);
+            } catch (MessagingException e) {
+                LOGGER.error("Email to {} could not be created", email.getTo(), e);
+                failed.add(email);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
 
-    public void sendUserAddedToTask(User user, Task task)
-    {
-        Email email = createEmailAddedToTask(user, task);
         try {
-            sendMail(email);
-        } catch (MessagingException e) {
-            e.printStackTrace();
+            emailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            LOGGER.warn("Sending batch of {} emails failed: {}", messages.size(), e.getMessage());
+            if (e.getFailedMessages().isEmpty()) {
+                failed.addAll(messages.values());
+            } else {
+                e.getFailedMessages().keySet().forEach(message -> failed.add(messages.get(message)));
+            }
+        } catch (MailException e) {
+            LOGGER.warn("Sending batch of {} emails failed: {}", messages.size(), e.getMessage());
+            failed.addAll(messages.values());
         }
+    }
 
+    public List<Email> createEmails(TaskNotificationEvent event) {
+        List<String> users = event.assignees().stream().limit(MAX_LISTED).map(User::toString).toList();
+        long moreUsers = event.assigneeCount() - users.size();
+        return event.recipients().stream()
+                .map(user -> switch (event.type()) {
+                    case ADDED_TO_TASK -> createEmailAddedToTask(user, event.task(), users, moreUsers);
+                    case REMOVED_FROM_TASK -> createEmailRemovedFromTask(user, event.task());
+                    case DUE_SOON -> createEmailDueDate(user, event.task(), "Task due soon", "due-soon-template.html");
+                    case OVERDUE -> createEmailDueDate(user, event.task(), "Task overdue", "overdue-template.html");
+                })
+                .toList();
     }
 
-    public void sendUserRemovedFromTask(User user, Task task)
-    {
-        Email email = createEmailRemovedFromTask(user, task);
-        try {
-            sendMail(email);
-        } catch (MessagingException e) {
-            e.printStackTrace();
-        }
+    public Email createEmail(TaskAssignmentsEvent event) {
+        boolean added = event.type() == NotificationType.ADDED_TO_TASK;
+        Email email = new Email();
+
+        email.setTo(event.recipient().getEmail());
+        email.setFrom(sender);
+        email.setSubject(added ? "Added to tasks" : "Removed from tasks");
+        email.setTemplate(added ? "added-to-tasks-template.html" : "removed-from-tasks-template.html");
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(EmailRenderer.NAME, event.recipient().getFirstName());
+        properties.put("tasks", event.tasks().stream().limit(MAX_LISTED).map(EmailService::describe).toList());
+        properties.put("moreTasks", Math.max(event.tasks().size() - MAX_LISTED, 0));
+        email.setProperties(properties);
+
+        return email;
+    }
+
+    private static String describe(TaskView task) {
+        return task.getDueDate() != null ? task.getTitle() + " (due " + task.getDueDate() + ")" : task.getTitle();
     }
 
-    public void sendToAllTaskUsers (Task task)
-    {
-        List<User> users = task.getUsers();
-        users.forEach(user -> sendUserAddedToTask(user, task));
+    private Timer sendTimer(String operation, String outcome) {
+        return Timer.builder("email.send")
+                .description("Time spent sending emails over SMTP")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private MimeMessage createMimeMessage(Email email, String html) throws MessagingException {
+
+        MimeMessage message = emailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED, StandardCharsets.UTF_8.name());
+
+        helper.setFrom(email.getFrom());
+        helper.setTo(email.getTo());
+        helper.setSubject(email.getSubject());
+        helper.setText(html, true);
 
+        return message;
     }
 
-    private Email createEmailAddedToTask (User user, Task task) {
+    private Email createEmailAddedToTask (User user, Task task, List<String> users, long moreUsers) {
 
         Email email = new Email();
         email.setTo(user.getEmail());
@@ -88,11 +176,12 @@ public class EmailService  {
         email.setTemplate("added-to-task-template.html");
 
         Map<String, Object> properties = new HashMap<>();
-        properties.put("name", user.getFirstName());
+        properties.put(EmailRenderer.NAME, user.getFirstName());
         properties.put("title", task.getTitle());
         properties.put("description", task.getDescription());
         properties.put("dueDate", task.getDueDate());
-        properties.put("users", task.getUsers().stream().map(User::toString).toArray());
+        properties.put("users", users);
+        properties.put("moreUsers", moreUsers);
         email.setProperties(properties);
 
         return email;
@@ -107,11 +196,28 @@ public class EmailService  {
         email.setTemplate("removed-from-task-template.html");
 
         Map<String, Object> properties = new HashMap<>();
-        properties.put("name", user.getFirstName());
+        properties.put(EmailRenderer.NAME, user.getFirstName());
         properties.put("title", task.getTitle());
         email.setProperties(properties);
 
         return email;
     }
 
+    private Email createEmailDueDate(User user, Task task, String subject, String template) {
+        Email email = new Email();
+
+        email.setTo(user.getEmail());
+        email.setFrom(sender);
+        email.setSubject(subject);
+        email.setTemplate(template);
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(EmailRenderer.NAME, user.getFirstName());
+        properties.put("title", task.getTitle());
+        properties.put("dueDate", task.getDueDate());
+        email.setProperties(properties);
+
+        return email;
+    }
+
 }
@@ -0,0 +1,229 @@
+package com.recruitment.taskmanager.service;
+
+import com.recruitment.taskmanager.config.VirtualThreads;
+import com.recruitment.taskmanager.enums.OutboxStatus;
+import com.recruitment.taskmanager.model.Email;
+import com.recruitment.taskmanager.model.OutboxEvent;
+import com.recruitment.taskmanager.repositories.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers notification emails from the outbox table outside of the request thread.
+ * Each worker periodically claims a batch of due rows, sends the batch over one SMTP
+ * connection and marks the rows as sent. Failed rows are rescheduled with exponential
+ * backoff until {@code notifications.max-attempts} is reached.
+ */
+@Component
+public class NotificationDispatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final NotificationOutbox notificationOutbox;
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+    private final int workers;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long pollIntervalMs;
+    private final Duration retention;
+    private final Duration claimTimeout;
+    private final boolean virtualThreads;
+
+    private final Timer sendTimer;
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+
+    private ScheduledExecutorService executor;
+
+    public NotificationDispatcher(OutboxEventRepository outboxEventRepository, NotificationOutbox notificationOutbox,
+                                  EmailService emailService, PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${notifications.workers:2}") int workers,
+                                  @Value("${notifications.batch-size:50}") int batchSize,
+                                  @Value("${notifications.max-attempts:3}") int maxAttempts,
+                                  @Value("${notifications.initial-backoff-ms:500}") long initialBackoffMs,
+                                  @Value("${notifications.poll-interval-ms:1000}") long pollIntervalMs,
+                                  @Value("${notifications.retention-hours:168}") long retentionHours,
+                                  @Value("${notifications.claim-timeout-ms:300000}") long claimTimeoutMs,
+                                  @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.notificationOutbox = notificationOutbox;
+        this.emailService = emailService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.pollIntervalMs = pollIntervalMs;
+        this.retention = Duration.ofHours(retentionHours);
+        this.claimTimeout = Duration.ofMillis(claimTimeoutMs);
+        this.virtualThreads = virtualThreads;
+
+        Gauge.builder("notifications.outbox.pending", outboxEventRepository,
+                        repository -> repository.countByStatus(OutboxStatus.PENDING))
+                .description("Emails waiting in the outbox")
+                .register(meterRegistry);
+        this.sendTimer = Timer.builder("notifications.send")
+                .description("Time spent sending one batch of emails")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("notifications.emails").tag("outcome", "sent").register(meterRegistry);
+        this.retriedCounter = Counter.builder("notifications.emails").tag("outcome", "retried").register(meterRegistry);
+        this.failedCounter = Counter.builder("notifications.emails").tag("outcome", "failed").register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (workers < 1) {
+            return;
+        }
+        ThreadFactory threadFactory = virtualThreads
+                ? VirtualThreads.threadFactory("notification-worker-")
+                : new CustomizableThreadFactory("notification-worker-");
+        executor = Executors.newScheduledThreadPool(workers, threadFactory);
+        for (int i = 0; i < workers; i++) {
+            executor.scheduleWithFixedDelay(this::drainOutbox, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        }
+        executor.scheduleWithFixedDelay(this::purgeSent, 1, 1, TimeUnit.HOURS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Claims and sends one batch of due outbox rows. Claiming and marking the rows are two short
+     * transactions; the SMTP round-trip between them holds neither row locks nor a connection.
+     * A claimed row is leased for {@code notifications.claim-timeout-ms}, after which it is due
+     * again should the worker die before marking it.
+     *
+     * @return number of rows claimed
+     */
+    public int dispatchPending() {
+        Instant now = Instant.now();
+        Map<Email, Long> emails = new LinkedHashMap<>();
+        Integer claimed = transactionTemplate.execute(status -> {
+            List<OutboxEvent> batch = outboxEventRepository.claimBatch(now, PageRequest.of(0, batchSize));
+            for (OutboxEvent outboxEvent : batch) {
+                try {
+                    emails.put(notificationOutbox.readEmail(outboxEvent), outboxEvent.getId());
+                    outboxEvent.setNextAttemptAt(now.plus(claimTimeout));
+                } catch (IllegalStateException e) {
+                    LOGGER.error("Outbox event {} cannot be sent", outboxEvent.getId(), e);
+                    markFailed(outboxEvent);
+                }
+            }
+            return batch.size();
+        });
+        if (emails.isEmpty()) {
+            return claimed != null ? claimed : 0;
+        }
+
+        Set<Email> failed = Collections.newSetFromMap(new IdentityHashMap<>());
+        failed.addAll(sendTimer.record(() -> emailService.sendBatch(new ArrayList<>(emails.keySet()))));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, OutboxEvent> outboxEvents = new HashMap<>();
+            outboxEventRepository.findAllById(emails.values())
+                    .forEach(outboxEvent -> outboxEvents.put(outboxEvent.getId(), outboxEvent));
+            emails.forEach((email, id) -> {
+                OutboxEvent outboxEvent = outboxEvents.get(id);
+                if (outboxEvent == null) {
+                    return;
+                }
+                if (failed.contains(email)) {
+                    reschedule(outboxEvent, now);
+                } else {
+                    outboxEvent.setStatus(OutboxStatus.SENT);
+                    outboxEvent.setAttempts(outboxEvent.getAttempts() + 1);
+                    outboxEvent.setSentAt(now);
+                    sentCounter.increment();
+                }
+            });
+        });
+        return claimed;
+    }
+
+    /**
+     * Puts every row which ran out of attempts back into the queue.
+     *
+     * @return number of rows scheduled again
+     */
+    public int replayFailed() {
+        Integer replayed = transactionTemplate.execute(status -> outboxEventRepository.replayFailed(Instant.now()));
+        return replayed != null ? replayed : 0;
+    }
+
+    private void reschedule(OutboxEvent outboxEvent, Instant now) {
+        int attempts = outboxEvent.getAttempts() + 1;
+        outboxEvent.setAttempts(attempts);
+        if (attempts >= maxAttempts) {
+            LOGGER.error("Giving up on email to {} after {} attempts", outboxEvent.getRecipient(), attempts);
+            markFailed(outboxEvent);
+            return;
+        }
+        outboxEvent.setNextAttemptAt(now.plusMillis(initialBackoffMs << (attempts - 1)));
+        retriedCounter.increment();
+    }
+
+    private void markFailed(OutboxEvent outboxEvent) {
+        outboxEvent.setStatus(OutboxStatus.FAILED);
+        failedCounter.increment();
+    }
+
+    private void drainOutbox() {
+        try {
+            while (dispatchPending() == batchSize && !Thread.currentThread().isInterrupted()) {
+                LOGGER.debug("Outbox batch full, polling again");
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("Notification worker failed", e);
+        }
+    }
+
+    private void purgeSent() {
+        try {
+            Integer deleted = transactionTemplate.execute(status ->
+                    outboxEventRepository.deleteSentBefore(Instant.now().minus(retention)));
+            LOGGER.info("Purged {} sent notifications", deleted);
+        } catch (RuntimeException e) {
+            LOGGER.error("Purging sent notifications failed", e);
+        }
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.recruitment.taskmanager.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.recruitment.taskmanager.enums.OutboxStatus;
+import com.recruitment.taskmanager.events.TaskAssignmentsEvent;
+import com.recruitment.taskmanager.events.TaskNotificationEvent;
+import com.recruitment.taskmanager.model.Email;
+import com.recruitment.taskmanager.model.OutboxEvent;
+import com.recruitment.taskmanager.repositories.OutboxEventRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Writes notification emails to the outbox table. The listener runs synchronously on the
+ * publishing thread, so the rows are part of the {@code TaskService} transaction and are
+ * rolled back together with it.
+ */
+@Component
+public class NotificationOutbox {
+
+    OutboxEventRepository outboxEventRepository;
+    EmailService emailService;
+    ObjectMapper objectMapper;
+
+    public NotificationOutbox(OutboxEventRepository outboxEventRepository, EmailService emailService,
+                              ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.emailService = emailService;
+        this.objectMapper = objectMapper;
+    }
+
+    @EventListener
+    public void onTaskNotification(TaskNotificationEvent event) {
+        Instant now = Instant.now();
+        List<OutboxEvent> outboxEvents = emailService.createEmails(event).stream()
+                .map(email -> new OutboxEvent(null, event.type(), event.task().getId(), email.getTo(),
+                        writePayload(email), OutboxStatus.PENDING, 0, now, now, null))
+                .toList();
+        outboxEventRepository.saveAll(outboxEvents);
+    }
+
+    @EventListener
+    public void onTaskAssignments(TaskAssignmentsEvent event) {
+        Instant now = Instant.now();
+        Email email = emailService.createEmail(event);
+        // one email covers several tasks, so it is not tied to a task id
+        outboxEventRepository.save(new OutboxEvent(null, event.type(), null, email.getTo(),
+                writePayload(email), OutboxStatus.PENDING, 0, now, now, null));
+    }
+
+    public Email readEmail(OutboxEvent outboxEvent) {
+        try {
+            return objectMapper.readValue(outboxEvent.getPayload(), Email.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable outbox payload " + outboxEvent.getId(), e);
+        }
+    }
+
+    private String writePayload(Email email) {
+        try {
+            return objectMapper.writeValueAsString(email);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Email to " + email.getTo() + " could not be serialized", e);
+        }
+    }
+}
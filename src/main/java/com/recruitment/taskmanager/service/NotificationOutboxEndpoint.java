@@ -0,0 +1,43 @@
+package com.recruitment.taskmanager.service;
+
+import com.recruitment.taskmanager.enums.OutboxStatus;
+import com.recruitment.taskmanager.repositories.OutboxEventRepository;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.jmx.annotation.JmxEndpoint;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint showing the outbox backlog and replaying failed notifications. Replaying resends
+ * emails, so the endpoint is available over JMX only and never exposed on the unauthenticated web port.
+ */
+@Component
+@JmxEndpoint(id = "outbox")
+public class NotificationOutboxEndpoint {
+
+    OutboxEventRepository outboxEventRepository;
+    NotificationDispatcher notificationDispatcher;
+
+    public NotificationOutboxEndpoint(OutboxEventRepository outboxEventRepository,
+                                      NotificationDispatcher notificationDispatcher) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.notificationDispatcher = notificationDispatcher;
+    }
+
+    @ReadOperation
+    public Map<OutboxStatus, Long> statusCounts() {
+        Map<OutboxStatus, Long> counts = new EnumMap<>(OutboxStatus.class);
+        for (OutboxStatus status : OutboxStatus.values()) {
+            counts.put(status, outboxEventRepository.countByStatus(status));
+        }
+        return counts;
+    }
+
+    @WriteOperation
+    public Map<String, Integer> replay() {
+        return Map.of("replayed", notificationDispatcher.replayFailed());
+    }
+}
@@ -1,5 +1,6 @@
 package com.recruitment.taskmanager.service;
 
+import com.recruitment.taskmanager.enums.SearchOperation;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -11,7 +12,7 @@ import lombok.Setter;
 @Setter
 public class SearchCriteria {
     private String key;
-    private String operation;
+    private SearchOperation operation;
     private Object value;
 
-}
\ No newline at end of file
+}
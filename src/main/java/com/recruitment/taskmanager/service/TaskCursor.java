@@ -0,0 +1,40 @@
+package com.recruitment.taskmanager.service;
+
+import com.recruitment.taskmanager.dto.TaskView;
+import com.recruitment.taskmanager.exceptions.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last task returned in a page, ordered by (dueDate, id).
+ * Sent to clients as an opaque Base64 token and passed back as the {@code after} parameter.
+ */
+public record TaskCursor(LocalDate dueDate, Long id) {
+
+    private static final String SEPARATOR = "|";
+    private static final String NO_DATE = "-";
+
+    public static TaskCursor of(TaskView task) {
+        return new TaskCursor(task.getDueDate(), task.getId());
+    }
+
+    public String encode() {
+        String raw = (dueDate == null ? NO_DATE : dueDate.toString()) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TaskCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            String date = raw.substring(0, separator);
+            Long id = Long.valueOf(raw.substring(separator + 1));
+            return new TaskCursor(NO_DATE.equals(date) ? null : LocalDate.parse(date), id);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid cursor :" + token);
+        }
+    }
+}
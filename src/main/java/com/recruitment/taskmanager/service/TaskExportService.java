@@ -0,0 +1,104 @@
+package com.recruitment.taskmanager.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.recruitment.taskmanager.dto.TaskExportRow;
+import com.recruitment.taskmanager.dto.TaskView;
+import com.recruitment.taskmanager.dto.UserView;
+import com.recruitment.taskmanager.enums.ExportFormat;
+import com.recruitment.taskmanager.repositories.TaskRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Writes all tasks with their assignees straight from a database cursor. Only the task
+ * being written is held in memory, so the export size does not depend on the table size.
+ */
+@Service
+public class TaskExportService {
+
+    private static final String CSV_HEADER = "id,title,description,status,dueDate,userIds,userEmails";
+
+    TaskRepository taskRepository;
+    ObjectMapper objectMapper;
+
+    public TaskExportService(TaskRepository taskRepository, ObjectMapper objectMapper) {
+        this.taskRepository = taskRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @return number of exported tasks
+     */
+    @Transactional(readOnly = true)
+    public long exportTasks(ExportFormat format, OutputStream outputStream) throws IOException {
+        Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long exported = 0;
+        try (Stream<TaskExportRow> rows = taskRepository.streamAllWithUsers()) {
+            Iterator<TaskExportRow> iterator = rows.iterator();
+            TaskView current = null;
+            while (iterator.hasNext()) {
+                TaskExportRow row = iterator.next();
+                if (current == null || !current.getId().equals(row.getTaskId())) {
+                    if (current != null) {
+                        write(format, current, writer);
+                        exported++;
+                    }
+                    current = row.toTaskView();
+                }
+                if (row.getUserId() != null) {
+                    current.getUsers().add(row.toUserView());
+                }
+            }
+            if (current != null) {
+                write(format, current, writer);
+                exported++;
+            }
+        }
+        writer.flush();
+        return exported;
+    }
+
+    private void write(ExportFormat format, TaskView task, Writer writer) throws IOException {
+        if (format == ExportFormat.CSV) {
+            writer.write(csvLine(task));
+        } else {
+            writer.write(objectMapper.writeValueAsString(task));
+        }
+        writer.write('\n');
+    }
+
+    private static String csvLine(TaskView task) {
+        return String.join(",",
+                String.valueOf(task.getId()),
+                csvField(task.getTitle()),
+                csvField(task.getDescription()),
+                csvField(task.getStatus() != null ? task.getStatus().name() : null),
+                csvField(task.getDueDate() != null ? task.getDueDate().toString() : null),
+                csvField(task.getUsers().stream().map(user -> String.valueOf(user.getId())).collect(Collectors.joining(";"))),
+                csvField(task.getUsers().stream().map(UserView::getEmail).collect(Collectors.joining(";"))));
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
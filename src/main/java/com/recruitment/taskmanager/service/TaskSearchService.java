@@ -0,0 +1,259 @@
+package com.recruitment.taskmanager.service;
+
+import com.recruitment.taskmanager.dto.TaskSearchPage;
+import com.recruitment.taskmanager.events.TaskChangedEvent;
+import com.recruitment.taskmanager.exceptions.InvalidSearchException;
+import com.recruitment.taskmanager.exceptions.SearchIndexNotReadyException;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.AlreadyClosedException;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Full-text search over task titles and descriptions backed by an in-memory Lucene index.
+ * The index is built from the database on startup and kept up to date from
+ * {@link TaskChangedEvent}s once their transaction commits. Matching ids are ranked by
+ * Lucene, the tasks themselves are loaded from the database. Searches are rejected with
+ * {@link SearchIndexNotReadyException} until the first build completes.
+ */
+@Service
+public class TaskSearchService {
+
+    public static final int MAX_RESULTS = 10_000;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskSearchService.class);
+
+    private static final String ID = "id";
+    private static final String TITLE = "title";
+    private static final String DESCRIPTION = "description";
+
+    private final TaskService taskService;
+    private final JdbcTemplate jdbcTemplate;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private volatile SearchIndex index;
+    // changes committed while a rebuild runs, replayed onto the new index before it is swapped in; guarded by this
+    private List<TaskChangedEvent> changesDuringRebuild;
+
+    public TaskSearchService(TaskService taskService, JdbcTemplate jdbcTemplate) {
+        this.taskService = taskService;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Ranked search, title matches weigh twice as much as description matches. Terms are
+     * required by default; the query supports {@code "phrases"}, {@code prefix*} and {@code -excluded}.
+     */
+    public TaskSearchPage searchTasks(String q, int page, int size) {
+        int pageSize = Math.min(Math.max(size, 1), TaskService.MAX_PAGE_SIZE);
+        int offset = Math.max(page, 0) * pageSize;
+        if (offset + pageSize > MAX_RESULTS) {
+            throw new InvalidSearchException("Search results are limited to the first " + MAX_RESULTS + " hits");
+        }
+        Query query = parse(q);
+
+        List<Long> ids = new ArrayList<>(pageSize);
+        TotalHits totalHits;
+        while (true) {
+            SearchIndex current = index;
+            if (current == null) {
+                throw new SearchIndexNotReadyException("Search index is being built, retry later");
+            }
+            try {
+                totalHits = search(current.searcherManager(), query, offset, pageSize, ids);
+                break;
+            } catch (AlreadyClosedException e) {
+                // a rebuild swapped the index in the meantime, search the new one
+                if (current == index) {
+                    throw e;
+                }
+                ids.clear();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        return new TaskSearchPage(taskService.findTaskViews(ids), totalHits.value,
+                totalHits.relation == TotalHits.Relation.EQUAL_TO, Math.max(page, 0), pageSize);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onTaskChanged(TaskChangedEvent event) {
+        if (event.taskId() == null) {
+            return;
+        }
+        if (changesDuringRebuild != null) {
+            changesDuringRebuild.add(event);
+        }
+        if (index != null) {
+            apply(index.indexWriter(), event);
+        }
+    }
+
+    /**
+     * Builds a new index from all tasks currently in the database and swaps it in once complete,
+     * so searches keep using the previous index meanwhile. Changes committed during the build are
+     * replayed onto the new index before the swap, which keeps tasks deleted meanwhile out of it.
+     *
+     * @return number of indexed tasks
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public long rebuildIndex() {
+        long started = System.currentTimeMillis();
+        long[] indexed = {0};
+        synchronized (this) {
+            if (changesDuringRebuild != null) {
+                throw new IllegalStateException("Search index rebuild is already running");
+            }
+            changesDuringRebuild = new ArrayList<>();
+        }
+        SearchIndex rebuilt = null;
+        SearchIndex previous = null;
+        try {
+            rebuilt = SearchIndex.open(analyzer);
+            IndexWriter indexWriter = rebuilt.indexWriter();
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement("SELECT id, title, description FROM task");
+                statement.setFetchSize(1000);
+                return statement;
+            }, resultSet -> {
+                try {
+                    indexWriter.addDocument(document(resultSet.getLong(1), resultSet.getString(2), resultSet.getString(3)));
+                    indexed[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            synchronized (this) {
+                changesDuringRebuild.forEach(event -> apply(indexWriter, event));
+                rebuilt.searcherManager().maybeRefresh();
+                previous = index;
+                index = rebuilt;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            synchronized (this) {
+                changesDuringRebuild = null;
+            }
+            if (rebuilt != null && index != rebuilt) {
+                rebuilt.close();
+            }
+        }
+        if (previous != null) {
+            previous.close();
+        }
+        LOGGER.info("Indexed {} tasks for search in {} ms", indexed[0], System.currentTimeMillis() - started);
+        return indexed[0];
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        if (index != null) {
+            index.close();
+        }
+    }
+
+    private static TotalHits search(SearcherManager searcherManager, Query query, int offset, int pageSize,
+                                    List<Long> ids) throws IOException {
+        searcherManager.maybeRefresh();
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs topDocs = searcher.search(query, offset + pageSize);
+            StoredFields storedFields = searcher.storedFields();
+            for (int i = offset; i < topDocs.scoreDocs.length; i++) {
+                ScoreDoc scoreDoc = topDocs.scoreDocs[i];
+                ids.add(Long.valueOf(storedFields.document(scoreDoc.doc).get(ID)));
+            }
+            return topDocs.totalHits;
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    private static void apply(IndexWriter indexWriter, TaskChangedEvent event) {
+        try {
+            Term id = new Term(ID, event.taskId().toString());
+            if (event.deleted()) {
+                indexWriter.deleteDocuments(id);
+            } else {
+                indexWriter.updateDocument(id, document(event.taskId(), event.title(), event.description()));
+            }
+        } catch (IOException e) {
+            LOGGER.error("Search index update for task {} failed", event.taskId(), e);
+        }
+    }
+
+    private Query parse(String q) {
+        if (q == null || q.isBlank()) {
+            throw new InvalidSearchException("Search query must not be blank");
+        }
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, Map.of(TITLE, 2f, DESCRIPTION, 1f));
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query query = parser.parse(q);
+        if (query == null) {
+            throw new InvalidSearchException("Search query has no searchable terms :" + q);
+        }
+        return query;
+    }
+
+    private static Document document(Long id, String title, String description) {
+        Document document = new Document();
+        document.add(new StringField(ID, id.toString(), Field.Store.YES));
+        if (title != null) {
+            document.add(new TextField(TITLE, title, Field.Store.NO));
+        }
+        if (description != null) {
+            document.add(new TextField(DESCRIPTION, description, Field.Store.NO));
+        }
+        return document;
+    }
+
+    private record SearchIndex(IndexWriter indexWriter, SearcherManager searcherManager) {
+
+        static SearchIndex open(Analyzer analyzer) throws IOException {
+            IndexWriter indexWriter = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(analyzer));
+            return new SearchIndex(indexWriter, new SearcherManager(indexWriter, null));
+        }
+
+        // searchers still acquired from the index keep their readers until they are released
+        void close() {
+            try {
+                searcherManager.close();
+                indexWriter.close();
+            } catch (IOException e) {
+                LOGGER.warn("Closing search index failed", e);
+            }
+        }
+    }
+}
@@ -1,40 +1,119 @@
 package com.recruitment.taskmanager.service;
 
+import com.recruitment.taskmanager.config.CacheConfig;
+import com.recruitment.taskmanager.dto.AssignmentResult;
+import com.recruitment.taskmanager.dto.CachedTask;
+import com.recruitment.taskmanager.dto.DeletedTask;
+import com.recruitment.taskmanager.dto.TaskAssignment;
+import com.recruitment.taskmanager.dto.TaskAssignmentDto;
+import com.recruitment.taskmanager.dto.TaskBatchItem;
 import com.recruitment.taskmanager.dto.TaskDto;
+import com.recruitment.taskmanager.dto.TaskPage;
+import com.recruitment.taskmanager.dto.TaskStatusResult;
+import com.recruitment.taskmanager.dto.TaskStatusRow;
+import com.recruitment.taskmanager.dto.TaskUserView;
+import com.recruitment.taskmanager.dto.TaskVersionRow;
+import com.recruitment.taskmanager.dto.TaskView;
 import com.recruitment.taskmanager.enums.Status;
+import com.recruitment.taskmanager.events.TaskAssignmentsEvent;
+import com.recruitment.taskmanager.events.TaskChangedEvent;
+import com.recruitment.taskmanager.events.TaskNotificationEvent;
+import com.recruitment.taskmanager.events.TaskReopenedEvent;
+import com.recruitment.taskmanager.events.TaskStatsBatchEvent;
+import com.recruitment.taskmanager.events.TaskStatsEvent;
+import com.recruitment.taskmanager.exceptions.BatchTooLargeException;
 import com.recruitment.taskmanager.exceptions.ResourceNotFoundException;
 import com.recruitment.taskmanager.exceptions.UserExistedInTaskException;
 import com.recruitment.taskmanager.model.Task;
 import com.recruitment.taskmanager.model.User;
 import com.recruitment.taskmanager.repositories.TaskRepository;
+import jakarta.validation.Validator;
+import org.hibernate.Hibernate;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class TaskService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_BATCH_SIZE = 1000;
+    public static final int STATUS_CHUNK_SIZE = 500;
+
     TaskRepository taskRepository;
     UserIdMapper userIdMapper;
-    EmailService emailService;
+    ApplicationEventPublisher eventPublisher;
+    Validator validator;
 
-    public TaskService(TaskRepository taskRepository, UserIdMapper userIdMapper, EmailService emailService) {
+    public TaskService(TaskRepository taskRepository, UserIdMapper userIdMapper,
+                       ApplicationEventPublisher eventPublisher, Validator validator) {
         this.taskRepository = taskRepository;
         this.userIdMapper = userIdMapper;
-        this.emailService = emailService;
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
     }
 
+    @Transactional(readOnly = true)
+    public TaskPage findTasks(String title, Status status, Long userId, LocalDate dateBefore,
+                              String after, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        TaskCursor cursor = after != null ? TaskCursor.decode(after) : null;
+
+        List<TaskView> tasks = taskRepository.findTasks(
+                new TaskSpecification(title, status, userId, dateBefore, cursor), pageSize + 1);
+
+        boolean hasNext = tasks.size() > pageSize;
+        List<TaskView> page = hasNext ? tasks.subList(0, pageSize) : tasks;
+        attachUsers(page);
+
+        return new TaskPage(page, hasNext ? TaskCursor.of(page.get(pageSize - 1)).encode() : null);
+    }
+
+    /**
+     * Loads the tasks with their assignees in the order of {@code ids}. Tasks deleted in the meantime are skipped.
+     */
+    @Transactional(readOnly = true)
+    public List<TaskView> findTaskViews(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, TaskView> tasksById = taskRepository.findViewsByIdIn(ids).stream()
+                .collect(Collectors.toMap(TaskView::getId, Function.identity()));
+        List<TaskView> tasks = ids.stream().map(tasksById::get).filter(Objects::nonNull).toList();
+        attachUsers(tasks);
+        return tasks;
+    }
+
+    // not read-only, so it reads from the primary: a lagging replica would keep an old task in the cache until it expires
     @Transactional
-    public List<Task> findTasks(String title, Status status, Long userId, LocalDate dateBefore) {
-        return taskRepository.findTasks(title,status,userId, dateBefore);
+    @Cacheable(cacheNames = CacheConfig.TASKS, key = "#id", unless = "#result == null")
+    public Optional<CachedTask> findTaskById(Long id) {
+        return taskRepository.findById(id).map(task -> new CachedTask(TaskView.of(task), ETags.of(task)));
     }
 
-    public Optional<Task> findTaskById(Long id) {
-        return taskRepository.findById(id);
+    /**
+     * ETag of the task as {@link #findTaskById} would return it, read from the version columns only.
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> findTaskETag(Long id) {
+        List<TaskVersionRow> rows = taskRepository.findVersionsById(id);
+        return rows.isEmpty() ? Optional.empty() : Optional.of(ETags.of(rows));
     }
 
     @Transactional
@@ -43,63 +122,329 @@ public class TaskService {
         newTask.setTitle(taskDto.getTitle());
         newTask.setDescription(taskDto.getDescription());
         newTask.setStatus(Status.OPENED);
-        newTask.setUsers(userIdMapper.mapToUserList(Arrays.asList(taskDto.getUserIds())));
+        newTask.setUsers(new LinkedHashSet<>(userIdMapper.mapToUserList(Arrays.asList(taskDto.getUserIds()))));
         newTask.setDueDate(taskDto.getDueDate());
         taskRepository.save(newTask);
 
-        emailService.sendToAllTaskUsers(newTask);
+        eventPublisher.publishEvent(TaskNotificationEvent.addedToTask(newTask, newTask.getUsers()));
+        eventPublisher.publishEvent(TaskChangedEvent.saved(newTask));
+        eventPublisher.publishEvent(TaskStatsEvent.added(newTask));
 
         return newTask;
     }
 
+    /**
+     * Creates all valid tasks in one transaction. Users of the whole batch are loaded with one query
+     * and the inserts are flushed in JDBC batches. Invalid tasks are rejected one by one
+     * instead of failing the whole batch.
+     */
     @Transactional
-    public void deleteTask(Long id) {
-        taskRepository.deleteById(id);
+    public List<TaskBatchItem> createTasks(List<TaskDto> taskDtos) {
+        if (taskDtos.size() > MAX_BATCH_SIZE) {
+            throw new BatchTooLargeException("Batch of " + taskDtos.size() + " tasks exceeds limit of " + MAX_BATCH_SIZE);
+        }
+        Map<Long, User> users = userIdMapper.mapToUsersById(taskDtos.stream()
+                .filter(Objects::nonNull)
+                .flatMap(taskDto -> userIds(taskDto).stream())
+                .collect(Collectors.toSet()));
+
+        List<TaskBatchItem> results = new ArrayList<>(taskDtos.size());
+        for (int i = 0; i < taskDtos.size(); i++) {
+            TaskDto taskDto = taskDtos.get(i);
+            List<String> errors = validate(taskDto, users);
+            if (!errors.isEmpty()) {
+                results.add(TaskBatchItem.rejected(i, errors));
+                continue;
+            }
+
+            Task newTask = new Task();
+            newTask.setTitle(taskDto.getTitle());
+            newTask.setDescription(taskDto.getDescription());
+            newTask.setStatus(Status.OPENED);
+            newTask.setUsers(userIds(taskDto).stream().map(users::get).collect(Collectors.toCollection(LinkedHashSet::new)));
+            newTask.setDueDate(taskDto.getDueDate());
+            taskRepository.save(newTask);
+
+            eventPublisher.publishEvent(TaskNotificationEvent.addedToTask(newTask, newTask.getUsers()));
+            eventPublisher.publishEvent(TaskChangedEvent.saved(newTask));
+            eventPublisher.publishEvent(TaskStatsEvent.added(newTask));
+            results.add(TaskBatchItem.created(i, newTask.getId()));
+        }
+        return results;
     }
 
+    /**
+     * Returns {@code false} when there was no task with the id.
+     */
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TASKS, key = "#id")
+    public boolean deleteTask(Long id) {
+        Optional<DeletedTask> deleted = taskRepository.deleteWithAssignments(id);
+        deleted.ifPresent(task -> {
+            eventPublisher.publishEvent(TaskStatsEvent.removed(task));
+            eventPublisher.publishEvent(TaskChangedEvent.deleted(id));
+        });
+        return deleted.isPresent();
+    }
+
+    /**
+     * Writes the join row of the user without loading the other assignees; the task row is locked
+     * first, and a pair assigned concurrently anyway is rejected by the primary key of task_users.
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TASKS, key = "#taskId")
     public Task addUserToTask(Long userId, Long taskId) {
         User user = userIdMapper.mapToUser(userId);
-        Task task = taskRepository.findById(taskId)
+        Task task = taskRepository.findLockedById(taskId)
                 .orElseThrow(() -> new ResourceNotFoundException("Task with ID :" + taskId + " Not Found"));
-
-        if (task.getUsers() != null && task.getUsers().contains(user)) {
+        List<TaskAssignment> added;
+        try {
+            added = taskRepository.insertAssignments(List.of(taskId), List.of(userId));
+        } catch (DataIntegrityViolationException e) {
+            added = List.of();
+        }
+        if (added.isEmpty()) {
             throw new UserExistedInTaskException("User with ID :" + userId + "already exist in task");
         }
-        task.getUsers().add(user);
+        taskRepository.incrementVersions(List.of(taskId));
 
-        emailService.sendUserAddedToTask(user, task);
+        Page<User> assignees = taskRepository.findUsersOfTask(taskId, PageRequest.of(0, EmailService.MAX_LISTED));
+        eventPublisher.publishEvent(TaskNotificationEvent.addedToTask(task, List.of(user), assignees.getContent(),
+                assignees.getTotalElements()));
+        eventPublisher.publishEvent(TaskStatsEvent.assigned(task, user));
+        // the response lists the assignees, and the session closes with the transaction
+        Hibernate.initialize(task.getUsers());
 
         return task;
     }
 
+    /**
+     * Deletes the join row of the user without loading the other assignees.
+     */
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TASKS, key = "#taskId")
     public Task removeUserFromTask(Long userId, Long taskId) {
         User user = userIdMapper.mapToUser(userId);
-        Task task = taskRepository.findById(taskId)
+        Task task = taskRepository.findLockedById(taskId)
                 .orElseThrow(() -> new ResourceNotFoundException("Task with ID :" + taskId + " Not Found"));
 
-
-        task.getUsers().remove(user);
-        emailService.sendUserRemovedFromTask(user, task);
+        if (!taskRepository.deleteAssignments(List.of(taskId), List.of(userId)).isEmpty()) {
+            taskRepository.incrementVersions(List.of(taskId));
+            eventPublisher.publishEvent(TaskStatsEvent.unassigned(task, user));
+        }
+        eventPublisher.publishEvent(TaskNotificationEvent.removedFromTask(task, user));
+        Hibernate.initialize(task.getUsers());
 
         return task;
     }
 
+    /**
+     * Assigns every user of the request to every task of it with one set-based INSERT. Pairs
+     * already assigned are skipped; each newly assigned user gets one email listing all new tasks.
+     * The task rows stay write-locked until the transaction ends.
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TASKS, allEntries = true)
+    public AssignmentResult addUsersToTasks(TaskAssignmentDto assignment) {
+        return changeAssignments(assignment, true);
+    }
+
+    /**
+     * Removes every user of the request from every task of it with one set-based DELETE; each
+     * removed user gets one email listing all tasks it was removed from.
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TASKS, allEntries = true)
+    public AssignmentResult removeUsersFromTasks(TaskAssignmentDto assignment) {
+        return changeAssignments(assignment, false);
+    }
+
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TASKS, key = "#taskId")
     public Task changeTaskStatus(Status status, Long taskId) {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new ResourceNotFoundException("Task with ID :" + taskId + " Not Found"));
-        task.setStatus(status);
+        if (task.getStatus() != status) {
+            eventPublisher.publishEvent(TaskStatsEvent.removed(task));
+            if (task.getStatus() == Status.COMPLETED) {
+                eventPublisher.publishEvent(new TaskReopenedEvent(task.getId(), task.getDueDate()));
+            }
+            task.setStatus(status);
+            eventPublisher.publishEvent(TaskStatsEvent.added(task));
+        }
 
         return task;
     }
 
+    /**
+     * Moves the tasks with the given ids to {@code status} with one UPDATE per
+     * {@link #STATUS_CHUNK_SIZE} tasks. Tasks which cannot make the transition are skipped and counted.
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TASKS, allEntries = true)
+    public TaskStatusResult changeTasksStatus(Status status, List<Long> ids) {
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinctIds.size() > MAX_BATCH_SIZE) {
+            throw new BatchTooLargeException("Batch of " + distinctIds.size() + " tasks exceeds limit of " + MAX_BATCH_SIZE);
+        }
+        StatusTally tally = new StatusTally();
+        for (int from = 0; from < distinctIds.size(); from += STATUS_CHUNK_SIZE) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + STATUS_CHUNK_SIZE, distinctIds.size()));
+            List<TaskStatusRow> tasks = taskRepository.lockStatuses(
+                    (root, query, builder) -> root.get("id").in(chunk), null, chunk.size());
+            tally.notFound += chunk.size() - tasks.size();
+            moveToStatus(tasks, status, tally);
+        }
+        return tally.toResult();
+    }
+
+    /**
+     * Moves every task matching the filters of {@link #findTasks} to {@code status}, walking them
+     * in id order one chunk at a time. The chunks share one transaction and their rows stay locked
+     * until it ends, so filters matching more than {@link #MAX_BATCH_SIZE} tasks are rejected up front.
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TASKS, allEntries = true)
+    public TaskStatusResult changeTasksStatus(Status status, String title, Status currentStatus, Long userId,
+                                              LocalDate dateBefore) {
+        TaskSpecification specification = new TaskSpecification(title, currentStatus, userId, dateBefore, null);
+        long matching = taskRepository.count(specification);
+        if (matching > MAX_BATCH_SIZE) {
+            throw new BatchTooLargeException("Filter matches " + matching + " tasks, exceeds limit of " + MAX_BATCH_SIZE);
+        }
+        StatusTally tally = new StatusTally();
+        Long afterId = null;
+        int locked = 0;
+        List<TaskStatusRow> tasks;
+        do {
+            tasks = taskRepository.lockStatuses(specification, afterId, STATUS_CHUNK_SIZE);
+            if (tasks.isEmpty()) {
+                break;
+            }
+            locked += tasks.size();
+            if (locked > MAX_BATCH_SIZE) {
+                // tasks created since the count; the rollback releases the locks
+                throw new BatchTooLargeException("Filter matches more than " + MAX_BATCH_SIZE + " tasks");
+            }
+            moveToStatus(tasks, status, tally);
+            afterId = tasks.get(tasks.size() - 1).getId();
+        } while (tasks.size() == STATUS_CHUNK_SIZE);
+        return tally.toResult();
+    }
+
+    @Transactional(readOnly = true)
     public List<Task> findByDueDateExpired() {
         LocalDate localDate = LocalDate.now();
         List<Task> tasks = new ArrayList<>(taskRepository.findAllWithDueDateExpired(localDate));
         return tasks;
     }
 
-}
+    private AssignmentResult changeAssignments(TaskAssignmentDto assignment, boolean assign) {
+        List<Long> taskIds = assignment.getTaskIds().stream().filter(Objects::nonNull).distinct().toList();
+        List<Long> userIds = assignment.getUserIds().stream().filter(Objects::nonNull).distinct().toList();
+        long pairs = (long) taskIds.size() * userIds.size();
+        if (pairs > MAX_BATCH_SIZE) {
+            throw new BatchTooLargeException("Batch of " + pairs + " assignments exceeds limit of " + MAX_BATCH_SIZE);
+        }
+        Map<Long, TaskView> tasks = taskRepository.lockViewsByIdIn(taskIds).stream()
+                .collect(Collectors.toMap(TaskView::getId, Function.identity()));
+        List<Long> missing = taskIds.stream().filter(id -> !tasks.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            throw new ResourceNotFoundException("Tasks with IDs :" + missing + " Not Found");
+        }
+        Map<Long, User> users = userIdMapper.mapToUserList(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<TaskAssignment> changed = assign
+                ? taskRepository.insertAssignments(taskIds, userIds)
+                : taskRepository.deleteAssignments(taskIds, userIds);
+        if (!changed.isEmpty()) {
+            Map<Long, List<Long>> usersByTask = changed.stream().collect(Collectors.groupingBy(
+                    TaskAssignment::getTaskId, Collectors.mapping(TaskAssignment::getUserId, Collectors.toList())));
+            Map<Long, List<TaskView>> tasksByUser = changed.stream().collect(Collectors.groupingBy(
+                    TaskAssignment::getUserId, Collectors.mapping(pair -> tasks.get(pair.getTaskId()), Collectors.toList())));
+            taskRepository.incrementVersions(usersByTask.keySet());
+
+            eventPublisher.publishEvent(new TaskStatsBatchEvent(usersByTask.entrySet().stream()
+                    .map(entry -> assign
+                            ? TaskStatsEvent.assigned(tasks.get(entry.getKey()), entry.getValue())
+                            : TaskStatsEvent.unassigned(tasks.get(entry.getKey()), entry.getValue()))
+                    .toList()));
+            tasksByUser.forEach((userId, userTasks) -> eventPublisher.publishEvent(assign
+                    ? TaskAssignmentsEvent.addedToTasks(users.get(userId), userTasks)
+                    : TaskAssignmentsEvent.removedFromTasks(users.get(userId), userTasks)));
+        }
+        return new AssignmentResult(changed.size(), (int) pairs - changed.size());
+    }
+
+    private void moveToStatus(List<TaskStatusRow> tasks, Status status, StatusTally tally) {
+        List<TaskStatusRow> moved = new ArrayList<>();
+        for (TaskStatusRow task : tasks) {
+            if (task.getStatus() == status) {
+                tally.unchanged++;
+            } else if (!task.getStatus().canMoveTo(status)) {
+                tally.rejected++;
+            } else {
+                moved.add(task);
+            }
+        }
+        if (moved.isEmpty()) {
+            return;
+        }
+        List<Long> ids = moved.stream().map(TaskStatusRow::getId).toList();
+        tally.updated += taskRepository.updateStatus(ids, status);
 
+        Map<Long, List<Long>> userIds = taskRepository.findUsersOfTasks(ids).stream()
+                .collect(Collectors.groupingBy(TaskUserView::getTaskId,
+                        Collectors.mapping(TaskUserView::getUserId, Collectors.toList())));
+        eventPublisher.publishEvent(new TaskStatsBatchEvent(moved.stream()
+                .flatMap(task -> TaskStatsEvent.statusChanged(task, status,
+                        userIds.getOrDefault(task.getId(), List.of())).stream())
+                .toList()));
+        moved.stream()
+                .filter(task -> task.getStatus() == Status.COMPLETED)
+                .forEach(task -> eventPublisher.publishEvent(new TaskReopenedEvent(task.getId(), task.getDueDate())));
+    }
+
+    private void attachUsers(List<TaskView> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        Map<Long, TaskView> tasksById = tasks.stream()
+                .collect(Collectors.toMap(TaskView::getId, Function.identity()));
+        taskRepository.findUsersOfTasks(tasksById.keySet())
+                .forEach(row -> tasksById.get(row.getTaskId()).getUsers().add(row.toUserView()));
+    }
+
+    private List<String> validate(TaskDto taskDto, Map<Long, User> users) {
+        if (taskDto == null) {
+            return List.of("Task must not be null");
+        }
+        List<String> errors = new ArrayList<>();
+        validator.validate(taskDto)
+                .forEach(violation -> errors.add(violation.getPropertyPath() + " " + violation.getMessage()));
+        userIds(taskDto).stream()
+                .filter(userId -> !users.containsKey(userId))
+                .forEach(userId -> errors.add("User with ID :" + userId + " Not Found"));
+        return errors;
+    }
+
+    private static List<Long> userIds(TaskDto taskDto) {
+        if (taskDto.getUserIds() == null) {
+            return List.of();
+        }
+        return Arrays.stream(taskDto.getUserIds()).filter(Objects::nonNull).distinct().toList();
+    }
+
+    private static final class StatusTally {
+
+        private int updated;
+        private int unchanged;
+        private int rejected;
+        private int notFound;
+
+        TaskStatusResult toResult() {
+            return new TaskStatusResult(updated, unchanged, rejected, notFound);
+        }
+    }
+}
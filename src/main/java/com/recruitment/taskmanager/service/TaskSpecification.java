@@ -0,0 +1,64 @@
+package com.recruitment.taskmanager.service;
+
+import com.recruitment.taskmanager.enums.Status;
+import com.recruitment.taskmanager.model.Task;
+import com.recruitment.taskmanager.model.User;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Task filters of the list endpoint. Only the filters which were supplied end up in the
+ * WHERE clause, so the database can pick an index for them. The user filter is a semi-join
+ * on task_users, which keeps tasks unique and does not drop tasks without assignees.
+ */
+public record TaskSpecification(String title, Status status, Long userId, LocalDate dateBefore, TaskCursor after)
+        implements Specification<Task> {
+
+    @Override
+    public Predicate toPredicate(Root<Task> root, CriteriaQuery<?> query, CriteriaBuilder builder) {
+
+        List<Predicate> predicates = new ArrayList<>();
+
+        if (title != null) {
+            predicates.add(builder.equal(root.get("title"), title));
+        }
+        if (status != null) {
+            predicates.add(builder.equal(root.get("status"), status));
+        }
+        if (dateBefore != null) {
+            predicates.add(builder.lessThan(root.get("dueDate"), dateBefore));
+        }
+        if (userId != null) {
+            Subquery<Long> assigned = query.subquery(Long.class);
+            Root<User> user = assigned.from(User.class);
+            Join<User, Task> tasks = user.join("tasks");
+            assigned.select(tasks.get("id")).where(builder.equal(user.get("id"), userId));
+            predicates.add(root.get("id").in(assigned));
+        }
+        if (after != null) {
+            predicates.add(seek(root, builder));
+        }
+        return builder.and(predicates.toArray(new Predicate[0]));
+    }
+
+    // rows after the cursor in (dueDate nulls first, id) order
+    private Predicate seek(Root<Task> root, CriteriaBuilder builder) {
+        Path<LocalDate> dueDate = root.get("dueDate");
+        Path<Long> id = root.get("id");
+        if (after.dueDate() == null) {
+            return builder.or(builder.isNotNull(dueDate), builder.greaterThan(id, after.id()));
+        }
+        return builder.or(builder.greaterThan(dueDate, after.dueDate()),
+                builder.and(builder.equal(dueDate, after.dueDate()), builder.greaterThan(id, after.id())));
+    }
+
+}
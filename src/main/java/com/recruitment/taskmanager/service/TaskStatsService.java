@@ -0,0 +1,219 @@
+package com.recruitment.taskmanager.service;
+
+import com.recruitment.taskmanager.dto.TaskStats;
+import com.recruitment.taskmanager.enums.Status;
+import com.recruitment.taskmanager.events.TaskStatsBatchEvent;
+import com.recruitment.taskmanager.events.TaskStatsEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Task counts per status and overdue tasks, globally and per assigned user, kept in memory so
+ * reading them is a map lookup. The counters follow {@link TaskStatsEvent}s once their
+ * transaction commits. Open tasks are counted per due date, and the counts of due dates which
+ * passed are rolled into the overdue count on the first update or read after midnight.
+ * Counters are rebuilt from the database on startup and every
+ * {@code stats.rebuild-interval-hours}; events which arrive while a rebuild runs are applied to
+ * the rebuilt counters too. An event of a change committed right before the rebuild read the
+ * tables may still be counted twice until the next rebuild.
+ */
+@Service
+public class TaskStatsService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskStatsService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long rebuildIntervalHours;
+
+    private volatile Counters global = new Counters(LocalDate.now());
+    private volatile ConcurrentMap<Long, Counters> byUser = new ConcurrentHashMap<>();
+    // events applied while a rebuild runs, applied to the rebuilt counters before they replace the current ones; guarded by this
+    private List<TaskStatsEvent> eventsDuringRebuild;
+
+    private ScheduledExecutorService executor;
+
+    public TaskStatsService(JdbcTemplate jdbcTemplate,
+                            @Value("${stats.rebuild-interval-hours:24}") long rebuildIntervalHours) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rebuildIntervalHours = rebuildIntervalHours;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        rebuild();
+        if (rebuildIntervalHours > 0) {
+            executor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("task-stats-"));
+            executor.scheduleWithFixedDelay(() -> {
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    LOGGER.error("Rebuilding task stats failed", e);
+                }
+            }, rebuildIntervalHours, rebuildIntervalHours, TimeUnit.HOURS);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    public TaskStats globalStats() {
+        return globalStats(LocalDate.now());
+    }
+
+    public TaskStats userStats(Long userId) {
+        return userStats(userId, LocalDate.now());
+    }
+
+    TaskStats globalStats(LocalDate today) {
+        return global.toStats(today);
+    }
+
+    TaskStats userStats(Long userId, LocalDate today) {
+        Counters counters = byUser.get(userId);
+        return counters != null ? counters.toStats(today) : new TaskStats(0, 0, 0, 0);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onTaskStats(TaskStatsEvent event) {
+        if (eventsDuringRebuild != null) {
+            eventsDuringRebuild.add(event);
+        }
+        apply(global, byUser, event, LocalDate.now());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskStatsBatch(TaskStatsBatchEvent event) {
+        event.events().forEach(this::onTaskStats);
+    }
+
+    /**
+     * Recounts every counter from the task tables and replaces the current ones.
+     */
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        LocalDate today = LocalDate.now();
+        Counters newGlobal = new Counters(today);
+        ConcurrentMap<Long, Counters> newByUser = new ConcurrentHashMap<>();
+        synchronized (this) {
+            if (eventsDuringRebuild != null) {
+                throw new IllegalStateException("Task stats rebuild is already running");
+            }
+            eventsDuringRebuild = new ArrayList<>();
+        }
+        try {
+            // the due date only matters for open tasks, so completed ones collapse into one row per status
+            jdbcTemplate.query("SELECT status, CASE WHEN status <> 'COMPLETED' THEN due_date END AS open_due_date,"
+                            + " COUNT(*) FROM task GROUP BY status, open_due_date",
+                    resultSet -> {
+                        newGlobal.add(Status.valueOf(resultSet.getString(1)), localDate(resultSet.getDate(2)),
+                                resultSet.getLong(3), today);
+                    });
+            jdbcTemplate.query("SELECT tu.users_id, t.status,"
+                            + " CASE WHEN t.status <> 'COMPLETED' THEN t.due_date END AS open_due_date, COUNT(*)"
+                            + " FROM task_users tu JOIN task t ON t.id = tu.tasks_id"
+                            + " GROUP BY tu.users_id, t.status, open_due_date",
+                    resultSet -> {
+                        newByUser.computeIfAbsent(resultSet.getLong(1), id -> new Counters(today))
+                                .add(Status.valueOf(resultSet.getString(2)), localDate(resultSet.getDate(3)),
+                                        resultSet.getLong(4), today);
+                    });
+
+            synchronized (this) {
+                eventsDuringRebuild.forEach(event -> apply(newGlobal, newByUser, event, LocalDate.now()));
+                global = newGlobal;
+                byUser = newByUser;
+            }
+        } finally {
+            synchronized (this) {
+                eventsDuringRebuild = null;
+            }
+        }
+        LOGGER.info("Rebuilt task stats of {} users in {} ms", newByUser.size(), System.currentTimeMillis() - started);
+    }
+
+    private static void apply(Counters global, ConcurrentMap<Long, Counters> byUser, TaskStatsEvent event,
+                              LocalDate today) {
+        if (event.countTask()) {
+            global.add(event.status(), event.dueDate(), event.delta(), today);
+        }
+        for (Long userId : event.userIds()) {
+            byUser.computeIfAbsent(userId, id -> new Counters(today))
+                    .add(event.status(), event.dueDate(), event.delta(), today);
+        }
+    }
+
+    private static LocalDate localDate(Date date) {
+        return date != null ? date.toLocalDate() : null;
+    }
+
+    private static final class Counters {
+
+        private final long[] byStatus = new long[Status.values().length];
+        // open tasks due on rolledTo or later, per due date; open tasks due earlier are counted in overdue
+        private final NavigableMap<LocalDate, Long> openByDueDate = new TreeMap<>();
+        private long overdue;
+        private LocalDate rolledTo;
+
+        Counters(LocalDate today) {
+            this.rolledTo = today;
+        }
+
+        synchronized void add(Status status, LocalDate dueDate, long count, LocalDate today) {
+            roll(today);
+            byStatus[status.ordinal()] += count;
+            if (status == Status.COMPLETED || dueDate == null) {
+                return;
+            }
+            if (dueDate.isBefore(rolledTo)) {
+                overdue += count;
+            } else {
+                openByDueDate.merge(dueDate, count, (current, added) -> current + added == 0 ? null : current + added);
+            }
+        }
+
+        synchronized TaskStats toStats(LocalDate today) {
+            roll(today);
+            return new TaskStats(byStatus[Status.OPENED.ordinal()], byStatus[Status.INPROGRESS.ordinal()],
+                    byStatus[Status.COMPLETED.ordinal()], overdue);
+        }
+
+        // moves the open tasks of the due dates before today into the overdue count
+        private void roll(LocalDate today) {
+            if (!today.isAfter(rolledTo)) {
+                return;
+            }
+            Map<LocalDate, Long> passed = openByDueDate.headMap(today, false);
+            for (long count : passed.values()) {
+                overdue += count;
+            }
+            passed.clear();
+            rolledTo = today;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.recruitment.taskmanager.service;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchical timer wheel keyed by abstract ticks. Six levels of 64 slots each cover 64^6 ticks;
+ * an entry is kept on the lowest level whose span reaches its deadline and is cascaded to lower
+ * levels as time advances, so scheduling and expiring are O(1) regardless of how many entries
+ * are pending. Entries are {@code (deadline, payload)} pairs stored in primitive arrays, which
+ * costs 16 bytes per entry. Not thread-safe.
+ */
+final class TimerWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 6;
+
+    @FunctionalInterface
+    interface ExpiredEntry {
+        void accept(long deadline, long payload);
+    }
+
+    private final Bucket[][] wheels = new Bucket[LEVELS][SLOTS];
+    private long currentTick;
+    private int size;
+
+    TimerWheel(long startTick) {
+        this.currentTick = startTick;
+    }
+
+    /**
+     * Schedules {@code payload} to expire at {@code deadline}. Deadlines not after the current
+     * tick expire on the next {@link #advanceTo} call.
+     */
+    void schedule(long deadline, long payload) {
+        insert(Math.max(deadline, currentTick + 1), deadline, payload);
+        size++;
+    }
+
+    /**
+     * Moves the wheel forward one tick at a time up to {@code tick} and hands every expired
+     * entry to {@code expired}, in deadline order.
+     */
+    void advanceTo(long tick, ExpiredEntry expired) {
+        while (currentTick < tick) {
+            currentTick++;
+            cascade();
+            Bucket bucket = wheels[0][(int) (currentTick & SLOT_MASK)];
+            if (bucket != null && bucket.size > 0) {
+                size -= bucket.size / 2;
+                Bucket fired = bucket.drain();
+                for (int i = 0; i < fired.size; i += 2) {
+                    expired.accept(fired.entries[i], fired.entries[i + 1]);
+                }
+            }
+        }
+    }
+
+    long currentTick() {
+        return currentTick;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // a slot of level n holds 64^n ticks; it is emptied into the lower levels when its range starts
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            int shift = level * SLOT_BITS;
+            if ((currentTick & ((1L << shift) - 1)) != 0) {
+                return;
+            }
+            Bucket bucket = wheels[level][(int) ((currentTick >>> shift) & SLOT_MASK)];
+            if (bucket != null && bucket.size > 0) {
+                Bucket moved = bucket.drain();
+                for (int i = 0; i < moved.size; i += 2) {
+                    insert(moved.entries[i], moved.entries[i], moved.entries[i + 1]);
+                }
+            }
+        }
+    }
+
+    // slotTick decides the slot, deadline is what gets reported back on expiry
+    private void insert(long slotTick, long deadline, long payload) {
+        long delta = slotTick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << ((level + 1) * SLOT_BITS)) {
+            level++;
+        }
+        int slot = (int) ((slotTick >>> (level * SLOT_BITS)) & SLOT_MASK);
+        Bucket bucket = wheels[level][slot];
+        if (bucket == null) {
+            bucket = new Bucket();
+            wheels[level][slot] = bucket;
+        }
+        bucket.add(deadline, payload);
+    }
+
+    private static final class Bucket {
+
+        private static final long[] EMPTY = new long[0];
+
+        long[] entries = EMPTY;
+        int size;
+
+        void add(long deadline, long payload) {
+            if (size + 2 > entries.length) {
+                entries = Arrays.copyOf(entries, Math.max(8, entries.length * 2));
+            }
+            entries[size++] = deadline;
+            entries[size++] = payload;
+        }
+
+        // hands out the current entries and leaves the bucket empty, so entries may be re-added meanwhile
+        Bucket drain() {
+            Bucket drained = new Bucket();
+            drained.entries = entries;
+            drained.size = size;
+            entries = EMPTY;
+            size = 0;
+            return drained;
+        }
+    }
+}
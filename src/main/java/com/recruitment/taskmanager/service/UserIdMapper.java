@@ -3,27 +3,77 @@ package com.recruitment.taskmanager.service;
 import com.recruitment.taskmanager.exceptions.ResourceNotFoundException;
 import com.recruitment.taskmanager.model.User;
 import com.recruitment.taskmanager.repositories.UserRepository;
+import jakarta.persistence.EntityManager;
 import org.springframework.stereotype.Service;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @Service
 public class UserIdMapper {
 
+    static final int MAX_IDS_PER_QUERY = 1000;
+
     UserRepository userRepository;
+    UserService userService;
+    EntityManager entityManager;
 
-    public UserIdMapper(UserRepository userRepository) {
+    public UserIdMapper(UserRepository userRepository, UserService userService, EntityManager entityManager) {
         this.userRepository = userRepository;
+        this.userService = userService;
+        this.entityManager = entityManager;
     }
 
+    /**
+     * Resolves users in request order with a single query.
+     *
+     * @throws ResourceNotFoundException listing every ID which does not exist
+     */
     public List<User> mapToUserList(List<Long> userIds) {
+        Map<Long, User> users = mapToUsersById(userIds);
+
+        List<Long> missing = userIds.stream()
+                .filter(id -> !users.containsKey(id))
+                .distinct()
+                .toList();
+        if (!missing.isEmpty()) {
+            throw new ResourceNotFoundException("Users with IDs :" + missing + " Not Found");
+        }
+
         return userIds.stream()
-                .map(this::mapToUser)
+                .map(users::get)
                 .toList();
     }
 
+    /**
+     * Loads all users with one IN query per {@value #MAX_IDS_PER_QUERY} IDs.
+     * IDs which do not exist are missing from the result.
+     */
+    public Map<Long, User> mapToUsersById(Collection<Long> userIds) {
+        List<Long> ids = userIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+
+        Map<Long, User> users = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+            List<Long> chunk = ids.subList(from, Math.min(from + MAX_IDS_PER_QUERY, ids.size()));
+            userRepository.findAllById(chunk).forEach(user -> users.put(user.getId(), user));
+        }
+        return users;
+    }
+
+    /**
+     * Checks the user exists through the user cache and returns a reference bound
+     * to the current persistence context, so no SELECT is issued on a cache hit.
+     */
     public User mapToUser(Long id) {
-        return userRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("User with ID :" + id + " Not Found"));
+        if (userService.findUserById(id).isEmpty()) {
+            throw new ResourceNotFoundException("User with ID :" + id + " Not Found");
+        }
+        return entityManager.getReference(User.class, id);
     }
 
 
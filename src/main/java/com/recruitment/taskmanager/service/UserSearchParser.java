@@ -0,0 +1,87 @@
+package com.recruitment.taskmanager.service;
+
+import com.recruitment.taskmanager.config.CacheConfig;
+import com.recruitment.taskmanager.enums.SearchOperation;
+import com.recruitment.taskmanager.exceptions.InvalidSearchException;
+import com.recruitment.taskmanager.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.Attribute;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Parses the {@code search} parameter of the users endpoint, e.g. {@code firstName:John,age>30},
+ * into a {@link UserSpecification}. Fields are checked against the {@link User} metamodel under
+ * their JSON names, so the identifier attribute {@code Id} is searched as {@code id}, and
+ * values are converted to the field type before any query runs. Parsed searches are cached by
+ * their trimmed text, so repeated searches skip parsing. Sort properties are checked against the
+ * same fields.
+ */
+@Component
+public class UserSearchParser {
+
+    private static final Pattern CRITERIA = Pattern.compile("(\\w+)(:|<|>|>=|<=)(\\w+),", Pattern.UNICODE_CHARACTER_CLASS);
+
+    private final Map<String, Class<?>> fields;
+    private final ConversionService conversionService = DefaultConversionService.getSharedInstance();
+
+    public UserSearchParser(EntityManagerFactory entityManagerFactory) {
+        this.fields = entityManagerFactory.getMetamodel().entity(User.class).getSingularAttributes().stream()
+                .filter(attribute -> attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC)
+                .collect(Collectors.toUnmodifiableMap(attribute -> StringUtils.uncapitalize(attribute.getName()),
+                        Attribute::getJavaType));
+    }
+
+    @Cacheable(cacheNames = CacheConfig.USER_SEARCHES, key = "#search.strip()", condition = "#search != null")
+    public UserSpecification parse(String search) {
+        if (search == null) {
+            return new UserSpecification(List.of());
+        }
+        List<SearchCriteria> criteria = new ArrayList<>();
+        Matcher matcher = CRITERIA.matcher(search.strip() + ",");
+        while (matcher.find()) {
+            String key = matcher.group(1);
+            criteria.add(new SearchCriteria(key, SearchOperation.fromSymbol(matcher.group(2)),
+                    convert(key, matcher.group(3))));
+        }
+        return new UserSpecification(criteria);
+    }
+
+    /**
+     * Checks that every sorted property is a basic field of {@link User} under its JSON name, so a
+     * typo fails as a bad request instead of a query error. {@code id} is accepted and replaces the
+     * id tiebreaker of {@code UserService}.
+     */
+    public Sort checkSort(Sort sort) {
+        for (Sort.Order order : sort) {
+            if (!fields.containsKey(order.getProperty())) {
+                throw new InvalidSearchException("Unknown sort field :" + order.getProperty());
+            }
+        }
+        return sort;
+    }
+
+    private Object convert(String key, String value) {
+        Class<?> type = fields.get(key);
+        if (type == null) {
+            throw new InvalidSearchException("Unknown search field :" + key);
+        }
+        try {
+            return conversionService.convert(value, type);
+        } catch (ConversionException e) {
+            throw new InvalidSearchException("Invalid value for search field " + key + " :" + value);
+        }
+    }
+
+}
@@ -1,35 +1,81 @@
 package com.recruitment.taskmanager.service;
 
+import com.recruitment.taskmanager.config.CacheConfig;
 import com.recruitment.taskmanager.dto.UserDto;
+import com.recruitment.taskmanager.dto.UserPage;
+import com.recruitment.taskmanager.exceptions.InvalidSearchException;
 import com.recruitment.taskmanager.exceptions.ResourceNotFoundException;
 import com.recruitment.taskmanager.model.User;
 import com.recruitment.taskmanager.repositories.UserRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import java.util.List;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.Optional;
 
 
 @Service
 public class UserService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
     UserRepository userRepository;
 
     public UserService(UserRepository userRepository) {
         this.userRepository = userRepository;
     }
 
-    public List<User> findAllUsers(UserSpecification specification) {
-        return (List<User>) userRepository.findAll(specification);
+    /**
+     * Returns one page of users. No count query runs unless {@code count} is set; the page size
+     * is capped at {@link #MAX_PAGE_SIZE} and the id breaks ties so offsets stay stable. Pages
+     * whose offset does not fit in an int are rejected with {@link InvalidSearchException}.
+     */
+    @Transactional(readOnly = true)
+    public UserPage findUsers(UserSpecification specification, Pageable pageable, boolean count) {
+        int pageSize = Math.min(Math.max(pageable.getPageSize(), 1), MAX_PAGE_SIZE);
+        // JPA takes the offset as an int
+        if ((long) pageable.getPageNumber() * pageSize > Integer.MAX_VALUE) {
+            throw new InvalidSearchException("Page " + pageable.getPageNumber() + " is out of range");
+        }
+        Sort sort = pageable.getSort().getOrderFor("id") != null
+                ? pageable.getSort() : pageable.getSort().and(Sort.by("id"));
+        Slice<User> slice = userRepository.findUsers(specification,
+                PageRequest.of(pageable.getPageNumber(), pageSize, sort));
+        Long total = count ? userRepository.count(specification) : null;
+        return new UserPage(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext(), total);
     }
 
+    // not read-only, so it reads from the primary: a lagging replica would keep an old user in the cache until it expires
+    @Transactional
+    @Cacheable(cacheNames = CacheConfig.USERS, key = "#id", unless = "#result == null")
     public Optional<User> findUserById(Long id) {
         return userRepository.findById(id);
     }
 
-    public void deleteUser(Long id) {
-        userRepository.deleteById(id);
+    @Transactional(readOnly = true)
+    public Optional<String> findUserETag(Long id) {
+        return userRepository.findVersionById(id).map(ETags::user);
+    }
+
+    /**
+     * Deletes the user and its task assignments with two bulk statements. Returns {@code false}
+     * when there was no user with the id.
+     */
+    // cached tasks embed their users
+    @Caching(evict = {@CacheEvict(cacheNames = CacheConfig.USERS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.TASKS, allEntries = true)})
+    @Transactional
+    public boolean deleteUser(Long id) {
+        return userRepository.deleteUserById(id) > 0;
     }
 
+    @Transactional
     public User saveUser(UserDto newUser) {
         User savedUser = new User();
         savedUser.setFirstName(newUser.getFirstName());
@@ -40,6 +86,9 @@ public class UserService {
         return savedUser;
     }
 
+    @Caching(evict = {@CacheEvict(cacheNames = CacheConfig.USERS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.TASKS, allEntries = true)})
+    @Transactional
     public User updateUser(Long id, UserDto userDto) {
         User updatedUser = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User with ID :" + id + " Not Found"));
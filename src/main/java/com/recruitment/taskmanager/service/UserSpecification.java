@@ -3,6 +3,7 @@ package com.recruitment.taskmanager.service;
 import com.recruitment.taskmanager.model.User;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import org.springframework.data.jpa.domain.Specification;
@@ -10,60 +11,42 @@ import java.util.ArrayList;
 import java.util.List;
 
 
+/**
+ * Immutable, so parsed searches can be cached and shared between requests.
+ * Values are expected to be converted to the type of their field already, see {@link UserSearchParser}.
+ */
 public class UserSpecification implements Specification<User> {
 
-    private List<SearchCriteria> searchCriteriaList;
+    private final List<SearchCriteria> searchCriteriaList;
 
-    public UserSpecification() {
-        this.searchCriteriaList = new ArrayList<>();
+    public UserSpecification(List<SearchCriteria> searchCriteriaList) {
+        this.searchCriteriaList = List.copyOf(searchCriteriaList);
     }
 
-    public void add(SearchCriteria criteria) {
-        searchCriteriaList.add(criteria);
+    public List<SearchCriteria> getSearchCriteriaList() {
+        return searchCriteriaList;
     }
 
     @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
     public Predicate toPredicate(Root<User> root, CriteriaQuery<?> query, CriteriaBuilder builder) {
 
         List<Predicate> predicates = new ArrayList<>();
 
         for (SearchCriteria criteria : searchCriteriaList) {
-            if (criteria.getOperation().equalsIgnoreCase(">")) {
-                predicates.add(
-                        builder.greaterThan(
-                        root.<String>get(criteria.getKey()), criteria.getValue().toString())
-                );
-            } else if (criteria.getOperation().equalsIgnoreCase(">=")) {
-                predicates.add(
-                        builder.greaterThanOrEqualTo(
-                        root.<String>get(criteria.getKey()), criteria.getValue().toString())
-                );
-            } else if (criteria.getOperation().equalsIgnoreCase("<")) {
-                predicates.add(
-                        builder.lessThan(
-                        root.<String>get(criteria.getKey()), criteria.getValue().toString())
-                );
-            } else if (criteria.getOperation().equalsIgnoreCase("<=")) {
-                predicates.add(
-                        builder.lessThanOrEqualTo(
-                        root.<String>get(criteria.getKey()), criteria.getValue().toString())
-                );
-            } else if (criteria.getOperation().equalsIgnoreCase(":")) {
-                if (root.get(criteria.getKey()).getJavaType() == String.class) {
-                    predicates.add(
-                            builder.like(
-                            root.<String>get(criteria.getKey()), "%" + criteria.getValue() + "%")
-                    );
-                } else {
-                    predicates.add(
-                            builder.equal(root.get(criteria.getKey()), criteria.getValue())
-                    );
-                }
-            }
-
+            Path<Comparable> path = root.get(criteria.getKey());
+            Comparable value = (Comparable) criteria.getValue();
+            predicates.add(switch (criteria.getOperation()) {
+                case GREATER_THAN -> builder.greaterThan(path, value);
+                case GREATER_THAN_OR_EQUAL -> builder.greaterThanOrEqualTo(path, value);
+                case LESS_THAN -> builder.lessThan(path, value);
+                case LESS_THAN_OR_EQUAL -> builder.lessThanOrEqualTo(path, value);
+                case MATCH -> path.getJavaType() == String.class
+                        ? builder.like(root.<String>get(criteria.getKey()), "%" + value + "%")
+                        : builder.equal(path, value);
+            });
         }
         return builder.and(predicates.toArray(new Predicate[0]));
     }
 
 }
-
@@ -0,0 +1,27 @@
+-- Schema as previously created by hibernate.ddl-auto=update, including the lengths, NOT NULL and CHECK
+-- constraints derived from the bean validation annotations; existing databases are baselined at this version
+CREATE TABLE task (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    description VARCHAR(300) NOT NULL,
+    due_date    DATE,
+    status      VARCHAR(255),
+    title       VARCHAR(100) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE users (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    age        INTEGER NOT NULL CHECK (age >= 1),
+    email      VARCHAR(100) NOT NULL,
+    first_name VARCHAR(100) NOT NULL,
+    last_name  VARCHAR(100) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE task_users (
+    tasks_id BIGINT NOT NULL,
+    users_id BIGINT NOT NULL
+);
+
+ALTER TABLE task_users ADD CONSTRAINT fkb3qs67hih9c0ymwfbfyl5y725 FOREIGN KEY (users_id) REFERENCES users (id);
+ALTER TABLE task_users ADD CONSTRAINT fkbfbc19yrn2ayt2h9nnfpumgc8 FOREIGN KEY (tasks_id) REFERENCES task (id);
@@ -0,0 +1,19 @@
+-- IF NOT EXISTS: databases which ran with ddl-auto=update already have the table
+CREATE SEQUENCE IF NOT EXISTS notification_outbox_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS notification_outbox (
+    id              BIGINT NOT NULL,
+    attempts        INTEGER NOT NULL,
+    created_at      TIMESTAMP(6) WITH TIME ZONE,
+    next_attempt_at TIMESTAMP(6) WITH TIME ZONE,
+    payload         VARCHAR(10000),
+    recipient       VARCHAR(255),
+    sent_at         TIMESTAMP(6) WITH TIME ZONE,
+    status          VARCHAR(255),
+    task_id         BIGINT,
+    type            VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+-- claimBatch: pending rows due for delivery
+CREATE INDEX IF NOT EXISTS idx_notification_outbox_status_next_attempt ON notification_outbox (status, next_attempt_at);
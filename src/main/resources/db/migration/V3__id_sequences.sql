@@ -0,0 +1,9 @@
+-- Task and User ids come from pooled sequences, continuing after the ids handed out by the identity columns.
+-- The pooled optimizer hands out the 50 ids up to each sequence value, so the first value is MAX(id) + 50.
+CREATE SEQUENCE IF NOT EXISTS task_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE task_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM task);
+ALTER SEQUENCE users_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM users);
+
+ALTER TABLE task ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
@@ -0,0 +1,9 @@
+-- findTasks: status filter with due date range and ordering
+CREATE INDEX idx_task_status_due_date ON task (status, due_date);
+-- findAllWithDueDateExpired range scan and keyset paging on (due_date, id)
+CREATE INDEX idx_task_due_date ON task (due_date, id);
+-- findTasks: title filter
+CREATE INDEX idx_task_title ON task (title);
+-- assignees of tasks (findUsersOfTasks) and tasks of a user (userId filter)
+CREATE INDEX idx_task_users_task_user ON task_users (tasks_id, users_id);
+CREATE INDEX idx_task_users_user_task ON task_users (users_id, tasks_id);
@@ -0,0 +1,3 @@
+-- optimistic locking and ETags of tasks and users
+ALTER TABLE task ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE users ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,9 @@
+-- task_users had no key, so nothing but the application kept a pair from being assigned twice
+CREATE TABLE task_users_distinct AS SELECT DISTINCT tasks_id, users_id FROM task_users;
+DELETE FROM task_users;
+INSERT INTO task_users (tasks_id, users_id) SELECT tasks_id, users_id FROM task_users_distinct;
+DROP TABLE task_users_distinct;
+
+-- the primary key index replaces idx_task_users_task_user
+DROP INDEX idx_task_users_task_user;
+ALTER TABLE task_users ADD CONSTRAINT pk_task_users PRIMARY KEY (tasks_id, users_id);
@@ -0,0 +1,56 @@
+package com.recruitment.taskmanager;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jmx.enabled=true")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@TestPropertySource(locations = "classpath:application-test.yml")
+class MetricsEndpointTest {
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    MBeanServer mBeanServer;
+
+    @Test
+    void prometheus_afterRequest_should_exposeLatencyHistograms() throws Exception {
+
+        //given
+        mockMvc.perform(get("/api/v1/tasks/")).andExpect(status().isOk());
+
+        //when //then
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "http_server_requests_seconds_bucket{application=\"taskmanager\",error=\"none\",exception=\"none\",method=\"GET\",outcome=\"SUCCESS\",status=\"200\",uri=\"/api/v1/tasks/\"")))
+                .andExpect(content().string(containsString(
+                        "spring_data_repository_invocations_seconds_bucket{application=\"taskmanager\",exception=\"None\",method=\"findTasks\",repository=\"TaskRepository\",state=\"SUCCESS\"")));
+    }
+
+    @Test
+    void outbox_should_beExposedOverJmxOnly() throws Exception {
+
+        //when //then
+        mockMvc.perform(post("/actuator/outbox")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/actuator/outbox")).andExpect(status().isNotFound());
+        assertThat(mBeanServer.queryNames(new ObjectName("org.springframework.boot:type=Endpoint,name=Outbox,*"), null))
+                .isNotEmpty();
+    }
+}
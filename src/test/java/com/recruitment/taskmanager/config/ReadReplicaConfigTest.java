@@ -0,0 +1,71 @@
+package com.recruitment.taskmanager.config;
+
+import com.recruitment.taskmanager.dto.UserDto;
+import com.recruitment.taskmanager.model.User;
+import com.recruitment.taskmanager.service.UserService;
+import com.recruitment.taskmanager.service.UserSpecification;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {"spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+        "datasource.replica.url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ReadReplicaConfig.class, UserService.class})
+// the default test transaction is read-write and would pin every query to the primary
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReadReplicaConfigTest {
+
+    @Autowired
+    UserService userService;
+    @Autowired
+    @Qualifier("primaryDataSource")
+    DataSource primaryDataSource;
+    @Autowired
+    @Qualifier("replicaDataSource")
+    DataSource replicaDataSource;
+
+    @BeforeEach
+    public void setUp() {
+        // the local replica is a second, unreplicated database, so it gets its own schema and rows
+        Flyway.configure().dataSource(replicaDataSource).load().migrate();
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        replica.update("DELETE FROM users");
+        replica.update("INSERT INTO users (id, first_name, last_name, email, age) VALUES (999, 'Rita', 'Replica', 'rita@gmail.com', 30)");
+        new JdbcTemplate(primaryDataSource).update("DELETE FROM users");
+    }
+
+    @Test
+    void readOnlyTransaction_then_readFromReplica() {
+
+        List<User> users = userService.findUsers(new UserSpecification(List.of()), PageRequest.of(0, 10), false)
+                .getUsers();
+
+        assertThat(users).extracting(User::getLastName).containsExactly("Replica");
+    }
+
+    @Test
+    void writeTransaction_then_writeToPrimary() {
+
+        User saved = userService.saveUser(new UserDto("Pete", "Primary", "pete@gmail.com", 30));
+
+        assertThat(new JdbcTemplate(primaryDataSource).queryForList("SELECT last_name FROM users", String.class))
+                .containsExactly("Primary");
+        // cached lookups read from the primary as well
+        assertThat(userService.findUserById(saved.getId())).map(User::getLastName).contains("Primary");
+    }
+}
@@ -0,0 +1,104 @@
+package com.recruitment.taskmanager.config;
+
+import com.recruitment.taskmanager.dto.UserDto;
+import com.recruitment.taskmanager.model.User;
+import com.recruitment.taskmanager.service.UserService;
+import com.recruitment.taskmanager.service.UserSpecification;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Routing of whole requests: every transaction of a request picks its own connection, so a write
+ * after a read-only call still reaches the primary.
+ */
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:mvc-primary;DB_CLOSE_DELAY=-1",
+        "datasource.replica.url=jdbc:h2:mem:mvc-replica;DB_CLOSE_DELAY=-1"})
+@AutoConfigureMockMvc
+@Import(ReadReplicaMvcTest.ReadThenWriteController.class)
+class ReadReplicaMvcTest {
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    @Qualifier("primaryDataSource")
+    DataSource primaryDataSource;
+    @Autowired
+    @Qualifier("replicaDataSource")
+    DataSource replicaDataSource;
+
+    JdbcTemplate primary;
+    JdbcTemplate replica;
+
+    @BeforeEach
+    public void setUp() {
+        // the local replica is a second, unreplicated database, so it gets its own schema and rows
+        Flyway.configure().dataSource(replicaDataSource).load().migrate();
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        for (JdbcTemplate database : List.of(primary, replica)) {
+            database.update("DELETE FROM task_users");
+            database.update("DELETE FROM users");
+            database.update("INSERT INTO users (id, first_name, last_name, email, age, version)"
+                    + " VALUES (999, 'Rita', 'Before', 'rita@gmail.com', 30, 0)");
+        }
+    }
+
+    @Test
+    void writeAfterReadOnlyCall_then_writeToPrimary() throws Exception {
+
+        mockMvc.perform(post("/read-then-write"))
+                .andExpect(status().isOk());
+
+        assertThat(primary.queryForList("SELECT last_name FROM users", String.class))
+                .containsExactlyInAnyOrder("Before", "Primary");
+        assertThat(replica.queryForList("SELECT last_name FROM users", String.class)).containsExactly("Before");
+    }
+
+    @Test
+    void updateUser_then_updatePrimary() throws Exception {
+
+        mockMvc.perform(put("/api/v1/users/999")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Rita\",\"lastName\":\"After\",\"email\":\"rita@gmail.com\",\"age\":30}"))
+                .andExpect(status().isOk());
+
+        assertThat(primary.queryForList("SELECT last_name FROM users", String.class)).containsExactly("After");
+        assertThat(replica.queryForList("SELECT last_name FROM users", String.class)).containsExactly("Before");
+    }
+
+    @RestController
+    static class ReadThenWriteController {
+
+        private final UserService userService;
+
+        ReadThenWriteController(UserService userService) {
+            this.userService = userService;
+        }
+
+        @PostMapping("/read-then-write")
+        User readThenWrite() {
+            userService.findUsers(new UserSpecification(List.of()), PageRequest.of(0, 10), false);
+            return userService.saveUser(new UserDto("Pete", "Primary", "pete@gmail.com", 30));
+        }
+    }
+}
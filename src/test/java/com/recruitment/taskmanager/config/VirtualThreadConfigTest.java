@@ -0,0 +1,42 @@
+package com.recruitment.taskmanager.config;
+
+import org.apache.catalina.connector.Connector;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// runs on JDK 21 or newer only, the profile fails fast on older JDKs
+@EnabledIf("com.recruitment.taskmanager.config.VirtualThreads#isSupported")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("virtual-threads")
+@TestPropertySource(locations = "classpath:application-test.yml")
+class VirtualThreadConfigTest {
+
+    @Autowired
+    ServletWebServerApplicationContext context;
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Test
+    void request_then_handledByTomcatOnVirtualThreads() throws Exception {
+
+        Connector connector = ((TomcatWebServer) context.getWebServer()).getTomcat().getConnector();
+        Thread thread = CompletableFuture.supplyAsync(Thread::currentThread,
+                connector.getProtocolHandler().getExecutor()).get();
+
+        assertThat(Thread.class.getMethod("isVirtual").invoke(thread)).isEqualTo(true);
+        assertThat(thread.getName()).startsWith("tomcat-handler-");
+        assertThat(restTemplate.getForEntity("/api/v1/tasks/", String.class).getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+}
@@ -0,0 +1,36 @@
+package com.recruitment.taskmanager.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VirtualThreadsTest {
+
+    @Test
+    void threadFactory_whenJdkWithoutVirtualThreads_then_failFast() {
+
+        assumeFalse(VirtualThreads.isSupported());
+
+        assertThatThrownBy(() -> VirtualThreads.threadFactory("test-"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageStartingWith("Virtual threads require JDK 21");
+    }
+
+    @Test
+    void executor_then_runTasksOnNamedVirtualThreads() throws Exception {
+
+        assumeTrue(VirtualThreads.isSupported());
+
+        ExecutorService executor = VirtualThreads.executor("test-");
+        Thread thread = executor.submit(Thread::currentThread).get();
+        executor.shutdown();
+
+        assertThat(Thread.class.getMethod("isVirtual").invoke(thread)).isEqualTo(true);
+        assertThat(thread.getName()).isEqualTo("test-0");
+    }
+}
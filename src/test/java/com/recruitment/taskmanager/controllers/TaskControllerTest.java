@@ -2,13 +2,29 @@ package com.recruitment.taskmanager.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.recruitment.taskmanager.dto.AssignmentResult;
+import com.recruitment.taskmanager.dto.CachedTask;
+import com.recruitment.taskmanager.dto.TaskBatchItem;
 import com.recruitment.taskmanager.dto.TaskDto;
+import com.recruitment.taskmanager.dto.TaskPage;
+import com.recruitment.taskmanager.dto.TaskSearchPage;
+import com.recruitment.taskmanager.dto.TaskStats;
+import com.recruitment.taskmanager.dto.TaskStatusResult;
+import com.recruitment.taskmanager.dto.TaskView;
+import com.recruitment.taskmanager.enums.ExportFormat;
 import com.recruitment.taskmanager.enums.Status;
+import com.recruitment.taskmanager.exceptions.BatchTooLargeException;
+import com.recruitment.taskmanager.exceptions.InvalidCursorException;
 import com.recruitment.taskmanager.exceptions.ResourceNotFoundException;
 import com.recruitment.taskmanager.model.Task;
 import com.recruitment.taskmanager.model.User;
 import com.recruitment.taskmanager.repositories.TaskRepository;
+import com.recruitment.taskmanager.service.ETags;
+import com.recruitment.taskmanager.service.TaskCursor;
+import com.recruitment.taskmanager.service.TaskExportService;
+import com.recruitment.taskmanager.service.TaskSearchService;
 import com.recruitment.taskmanager.service.TaskService;
+import com.recruitment.taskmanager.service.TaskStatsService;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,26 +33,38 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.zip.GZIPInputStream;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.BDDMockito.given;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -62,6 +90,12 @@ class TaskControllerTest {
     private TaskService taskService;
     @MockBean
     private TaskRepository taskRepository;
+    @MockBean
+    private TaskExportService taskExportService;
+    @MockBean
+    private TaskSearchService taskSearchService;
+    @MockBean
+    private TaskStatsService taskStatsService;
 
 
     @BeforeEach
@@ -83,39 +117,186 @@ class TaskControllerTest {
     void getTasks_whenSearchNull_should_getAllTasks() throws Exception {
 
         List<Task> allTasks = Arrays.asList(task1,task2,task3);
-        given(taskService.findTasks(null,null, null, null)).willReturn(allTasks);
+        given(taskService.findTasks(null,null, null, null, null, TaskService.DEFAULT_PAGE_SIZE))
+                .willReturn(new TaskPage(allTasks.stream().map(TaskView::of).toList(), null));
 
         mockMvc.perform(MockMvcRequestBuilders
                         .get("/api/v1/tasks/")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(3)))
-                .andExpect(jsonPath("$[0].title", is("firstTask"))).
-                andExpect(jsonPath("$[1].title", is("secondTask")));
+                .andExpect(jsonPath("$.tasks", hasSize(3)))
+                .andExpect(jsonPath("$.tasks[0].title", is("firstTask"))).
+                andExpect(jsonPath("$.tasks[1].title", is("secondTask")))
+                .andExpect(jsonPath("$.next").doesNotExist());
 
     }
 
     @Test
     void getTasks_whenSearch_should_getTasks() throws Exception {
 
-        given(taskService.findTasks(null,Status.INPROGRESS, null, null)).willReturn(List.of(task3));
+        given(taskService.findTasks(null,Status.INPROGRESS, null, null, null, TaskService.DEFAULT_PAGE_SIZE))
+                .willReturn(new TaskPage(List.of(TaskView.of(task3)), null));
 
         mockMvc.perform(MockMvcRequestBuilders
                         .get("/api/v1/tasks/")
                         .param( "status", String.valueOf(Status.INPROGRESS))
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].title", is("thirdTask")));
+                .andExpect(jsonPath("$.tasks[0].title", is("thirdTask")));
+    }
+
+    @Test
+    void searchTasks_should_returnRankedPage() throws Exception {
+
+        given(taskSearchService.searchTasks("third", 0, TaskService.DEFAULT_PAGE_SIZE))
+                .willReturn(new TaskSearchPage(List.of(TaskView.of(task3)), 1, true, 0, TaskService.DEFAULT_PAGE_SIZE));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/v1/tasks/search")
+                        .param("q", "third")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks[0].title", is("thirdTask")))
+                .andExpect(jsonPath("$.total", is(1)));
+    }
+
+    @Test
+    void getTaskStats_should_returnGlobalStats() throws Exception {
+
+        given(taskStatsService.globalStats()).willReturn(new TaskStats(3, 0, 1, 2));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/v1/tasks/stats")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.opened", is(3)))
+                .andExpect(jsonPath("$.completed", is(1)))
+                .andExpect(jsonPath("$.overdue", is(2)));
+    }
+
+    @Test
+    void getTasks_whenAfterAndLimit_should_returnNextCursor() throws Exception {
+
+        String after = TaskCursor.of(TaskView.of(task2)).encode();
+        String next = TaskCursor.of(TaskView.of(task3)).encode();
+        given(taskService.findTasks(null,null, null, null, after, 1)).willReturn(new TaskPage(List.of(TaskView.of(task3)), next));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/v1/tasks/")
+                        .param("after", after)
+                        .param("limit", "1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks", hasSize(1)))
+                .andExpect(jsonPath("$.next", is(next)));
+    }
+
+    @Test
+    void getTasks_whenInvalidCursor_should_returnBadRequest() throws Exception {
+
+        given(taskService.findTasks(null,null, null, null, "broken", TaskService.DEFAULT_PAGE_SIZE))
+                .willThrow(new InvalidCursorException("Invalid cursor :broken"));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/v1/tasks/")
+                        .param("after", "broken")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportTasks_whenGzipAccepted_should_streamCompressedCsv() throws Exception {
+
+        given(taskExportService.exportTasks(Mockito.eq(ExportFormat.CSV), Mockito.any(OutputStream.class)))
+                .willAnswer(invocation -> {
+                    invocation.getArgument(1, OutputStream.class).write("id,title\n1,firstTask\n".getBytes(StandardCharsets.UTF_8));
+                    return 1L;
+                });
+
+        MvcResult asyncResult = mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/v1/tasks/export")
+                        .param("format", "CSV")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MvcResult result = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/csv"))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andReturn();
+        byte[] body = new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray())).readAllBytes();
+        assertEquals("id,title\n1,firstTask\n", new String(body, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void exportTasks_whenGzipRefused_should_streamPlainCsv() throws Exception {
+
+        given(taskExportService.exportTasks(Mockito.eq(ExportFormat.CSV), Mockito.any(OutputStream.class)))
+                .willAnswer(invocation -> {
+                    invocation.getArgument(1, OutputStream.class).write("id,title\n1,firstTask\n".getBytes(StandardCharsets.UTF_8));
+                    return 1L;
+                });
+
+        MvcResult asyncResult = mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/v1/tasks/export")
+                        .param("format", "CSV")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, *;q=0.5"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andExpect(content().string("id,title\n1,firstTask\n"));
+    }
+
+    @Test
+    void acceptsGzip_should_honourQualityValues() {
+        assertTrue(TaskController.acceptsGzip("deflate, gzip;q=0.8"));
+        assertTrue(TaskController.acceptsGzip("*"));
+        assertFalse(TaskController.acceptsGzip("gzip;q=0"));
+        assertFalse(TaskController.acceptsGzip("gzip;q=0.0, *"));
+        assertFalse(TaskController.acceptsGzip("*;q=0"));
+        assertFalse(TaskController.acceptsGzip("identity"));
+        assertFalse(TaskController.acceptsGzip(null));
     }
 
     @Test
     void getTaskById_should_returnTask() throws Exception {
-        when(taskService.findTaskById(task1.getId())).thenReturn(Optional.of(task1));
+        when(taskService.findTaskById(task1.getId())).thenReturn(Optional.of(cached(task1)));
 
         mockMvc.perform(get("/api/v1/tasks/" + task1.getId()))
                 .andDo(MockMvcResultHandlers.print())
                 .andExpect(MockMvcResultMatchers.status().is(200))
-                .andExpect(MockMvcResultMatchers.jsonPath("$.title", Matchers.is("firstTask")));
+                .andExpect(MockMvcResultMatchers.jsonPath("$.title", Matchers.is("firstTask")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.users[0].firstName", Matchers.is("John")))
+                .andExpect(header().string(HttpHeaders.ETAG, ETags.of(task1)));
+    }
+
+    @Test
+    void getTaskById_whenIfNoneMatchCurrentVersion_should_returnNotModifiedWithoutLoadingTask() throws Exception {
+        when(taskService.findTaskETag(task1.getId())).thenReturn(Optional.of("\"3\""));
+
+        mockMvc.perform(get("/api/v1/tasks/" + task1.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"2\", \"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(MockMvcResultMatchers.content().string(""));
+        verify(taskService, never()).findTaskById(task1.getId());
+    }
+
+    @Test
+    void getTaskById_whenIfNoneMatchOldVersion_should_returnTask() throws Exception {
+        when(taskService.findTaskETag(task1.getId())).thenReturn(Optional.of("\"3\""));
+        when(taskService.findTaskById(task1.getId())).thenReturn(Optional.of(cached(task1)));
+
+        mockMvc.perform(get("/api/v1/tasks/" + task1.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"2\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title", is("firstTask")));
     }
 
     @Test
@@ -143,11 +324,30 @@ class TaskControllerTest {
                 .andExpect(jsonPath("$.title", is("firstTask")));
     }
 
+    @Test
+    void createTasks_whenSomeRejected_should_returnMultiStatus() throws Exception {
+
+        given(taskService.createTasks(Mockito.anyList())).willReturn(List.of(
+                TaskBatchItem.created(0, 1L),
+                TaskBatchItem.rejected(1, List.of("User with ID :99 Not Found"))));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .post("/api/v1/tasks/batch")
+                        .content(asJsonString(List.of(taskDto, taskDto)))
+                        .contentType(MediaType.APPLICATION_JSON))
+
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status", is("CREATED")))
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[1].status", is("REJECTED")))
+                .andExpect(jsonPath("$[1].errors[0]", is("User with ID :99 Not Found")));
+    }
+
     @Test
     void deleteTask_validId_statusIsOk() throws Exception {
 
-        when(taskRepository.findById(task1.getId())).thenReturn(Optional.of(task1));
-        doNothing().when(taskService).deleteTask(task1.getId());
+        when(taskService.deleteTask(task1.getId())).thenReturn(true);
 
         mockMvc.perform(MockMvcRequestBuilders
                         .delete("/api/v1/tasks/" + task1.getId())
@@ -158,8 +358,7 @@ class TaskControllerTest {
     @Test
     void deleteTask_InvalidId_ResourceNotFoundException() throws Exception {
 
-        when(taskRepository.findById(99L)).thenReturn(Optional.empty());
-        doNothing().when(taskService).deleteTask(task1.getId());
+        when(taskService.deleteTask(99L)).thenReturn(false);
 
         mockMvc.perform(MockMvcRequestBuilders
                         .delete("/api/v1/tasks/" + 99L)
@@ -207,6 +406,97 @@ class TaskControllerTest {
 
 
 
+    @Test
+    void addUsersToTasks_should_returnCounts() throws Exception {
+        given(taskService.addUsersToTasks(Mockito.any())).willReturn(new AssignmentResult(3, 1));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .patch("/api/v1/tasks/user-addition")
+                        .content("{\"taskIds\": [1, 2], \"userIds\": [1, 2]}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed", is(3)))
+                .andExpect(jsonPath("$.unchanged", is(1)));
+    }
+
+    @Test
+    void addUsersToTasks_whenPairAssignedConcurrently_should_returnConflict() throws Exception {
+        given(taskService.addUsersToTasks(Mockito.any()))
+                .willThrow(new DataIntegrityViolationException("duplicate key in task_users"));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .patch("/api/v1/tasks/user-addition")
+                        .content("{\"taskIds\": [1, 2], \"userIds\": [1, 2]}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void removeUsersFromTasks_whenNoUsers_should_returnBadRequest() throws Exception {
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .patch("/api/v1/tasks/user-removing")
+                        .content("{\"taskIds\": [1], \"userIds\": []}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(taskService, never()).removeUsersFromTasks(Mockito.any());
+    }
+
+    @Test
+    void changeTasksStatus_whenIds_should_returnCounts() throws Exception {
+        given(taskService.changeTasksStatus(Status.COMPLETED, List.of(1L, 2L, 99L)))
+                .willReturn(new TaskStatusResult(1, 1, 0, 1));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .patch("/api/v1/tasks/status")
+                        .param("to", Status.COMPLETED.toString())
+                        .content("[1, 2, 99]")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated", is(1)))
+                .andExpect(jsonPath("$.unchanged", is(1)))
+                .andExpect(jsonPath("$.notFound", is(1)));
+    }
+
+    @Test
+    void changeTasksStatus_whenFilter_should_changeMatchingTasks() throws Exception {
+        given(taskService.changeTasksStatus(Status.COMPLETED, null, Status.INPROGRESS, 2L, null))
+                .willReturn(new TaskStatusResult(3, 0, 0, 0));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .patch("/api/v1/tasks/status")
+                        .param("to", Status.COMPLETED.toString())
+                        .param("status", Status.INPROGRESS.toString())
+                        .param("userId", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated", is(3)));
+    }
+
+    @Test
+    void changeTasksStatus_whenFilterMatchesTooManyTasks_should_returnPayloadTooLarge() throws Exception {
+        given(taskService.changeTasksStatus(Status.COMPLETED, null, null, null, LocalDate.of(2100, 1, 1)))
+                .willThrow(new BatchTooLargeException("Filter matches 5000 tasks, exceeds limit of 1000"));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .patch("/api/v1/tasks/status")
+                        .param("to", Status.COMPLETED.toString())
+                        .param("dateBefore", "2100-01-01"))
+                .andExpect(status().isPayloadTooLarge());
+    }
+
+    @Test
+    void changeTasksStatus_whenNoIdsAndNoFilter_should_returnBadRequest() throws Exception {
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .patch("/api/v1/tasks/status")
+                        .param("to", Status.COMPLETED.toString()))
+                .andExpect(status().isBadRequest());
+
+        verify(taskService, never()).changeTasksStatus(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+                Mockito.any());
+    }
+
     @Test
     void getAllTasksByDueDateExpired() throws Exception {
         given(taskService.findByDueDateExpired()).willReturn(List.of(task2,task3));
@@ -219,6 +509,10 @@ class TaskControllerTest {
                 .andExpect(jsonPath("$[1].title", is("thirdTask")));
     }
 
+    private static CachedTask cached(Task task) {
+        return new CachedTask(TaskView.of(task), ETags.of(task));
+    }
+
     private static String asJsonString(final Object obj) {
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
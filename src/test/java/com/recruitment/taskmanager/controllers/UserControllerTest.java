@@ -2,10 +2,13 @@ package com.recruitment.taskmanager.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.recruitment.taskmanager.dto.TaskStats;
 import com.recruitment.taskmanager.dto.UserDto;
+import com.recruitment.taskmanager.dto.UserPage;
 import com.recruitment.taskmanager.exceptions.ResourceNotFoundException;
 import com.recruitment.taskmanager.model.User;
 import com.recruitment.taskmanager.repositories.UserRepository;
+import com.recruitment.taskmanager.service.TaskStatsService;
 import com.recruitment.taskmanager.service.UserService;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,6 +18,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
@@ -30,7 +36,8 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.BDDMockito.given;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -56,6 +63,9 @@ class UserControllerTest {
     @MockBean
     private UserRepository userRepository;
 
+    @MockBean
+    private TaskStatsService taskStatsService;
+
 
     @BeforeEach
     public void setUp() {
@@ -71,30 +81,114 @@ class UserControllerTest {
     @Test
     void getUsers_whenSearchIsNull_should_getAllUsers() throws Exception {
 
-        when(userService.findAllUsers(Mockito.any())).thenReturn(allUsers);
+        when(userService.findUsers(Mockito.any(), Mockito.any(), Mockito.eq(false)))
+                .thenReturn(new UserPage(allUsers, 0, 50, false, null));
 
         mockMvc.perform(MockMvcRequestBuilders
                         .get("/api/v1/users/")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(3)))
-                .andExpect(jsonPath("$[0].firstName", is("John"))).
-                andExpect(jsonPath("$[1].firstName", is("Jane")));
+                .andExpect(jsonPath("$.users", hasSize(3)))
+                .andExpect(jsonPath("$.users[0].firstName", is("John"))).
+                andExpect(jsonPath("$.users[1].firstName", is("Jane")))
+                .andExpect(jsonPath("$.hasNext", is(false)))
+                .andExpect(jsonPath("$.total").doesNotExist());
     }
 
     @Test
     void getUsers_whenSearch_should_getAllUsers() throws Exception {
 
         String search = "firstName:John";
-        when(userService.findAllUsers(Mockito.any())).thenReturn(List.of(user1));
+        when(userService.findUsers(Mockito.any(), Mockito.any(), Mockito.eq(false)))
+                .thenReturn(new UserPage(List.of(user1), 0, 50, false, null));
 
         mockMvc.perform(MockMvcRequestBuilders
                         .get("/api/v1/users/")
                         .param( "search", search)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].firstName", is("John")));
+                .andExpect(jsonPath("$.users", hasSize(1)))
+                .andExpect(jsonPath("$.users[0].firstName", is("John")));
+    }
+
+    @Test
+    void getUsers_whenSearchById_should_getUser() throws Exception {
+
+        when(userService.findUsers(Mockito.any(), Mockito.any(), Mockito.eq(false)))
+                .thenReturn(new UserPage(List.of(user2), 0, 50, false, null));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/v1/users/")
+                        .param("search", "id:2")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users[0].id", is(2)));
+
+        verify(userService).findUsers(Mockito.argThat(specification -> specification.getSearchCriteriaList().size() == 1
+                        && specification.getSearchCriteriaList().get(0).getKey().equals("id")
+                        && specification.getSearchCriteriaList().get(0).getValue().equals(2L)),
+                Mockito.any(), Mockito.eq(false));
+    }
+
+    @Test
+    void getUsers_whenPageSortAndCount_should_passThemToService() throws Exception {
+
+        when(userService.findUsers(Mockito.any(), Mockito.any(), Mockito.eq(true)))
+                .thenReturn(new UserPage(List.of(user2), 1, 1, true, 3L));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/v1/users/")
+                        .param("page", "1")
+                        .param("size", "1")
+                        .param("sort", "lastName,desc")
+                        .param("count", "true")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users[0].firstName", is("Jane")))
+                .andExpect(jsonPath("$.hasNext", is(true)))
+                .andExpect(jsonPath("$.total", is(3)));
+
+        verify(userService).findUsers(Mockito.any(),
+                Mockito.eq(PageRequest.of(1, 1, Sort.by(Sort.Direction.DESC, "lastName"))), Mockito.eq(true));
+    }
+
+    @Test
+    void getUsers_whenSortByIdDesc_should_passSortToService() throws Exception {
+
+        when(userService.findUsers(Mockito.any(), Mockito.any(), Mockito.eq(false)))
+                .thenReturn(new UserPage(List.of(user3, user2), 0, 50, false, null));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/v1/users/")
+                        .param("sort", "id,desc")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users[0].id", is(3)));
+
+        verify(userService).findUsers(Mockito.any(),
+                Mockito.eq(PageRequest.of(0, 50, Sort.by(Sort.Direction.DESC, "id"))), Mockito.eq(false));
+    }
+
+    @Test
+    void getUsers_whenSortByUnknownField_should_returnBadRequest() throws Exception {
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/v1/users/")
+                        .param("sort", "password")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.content().string("Unknown sort field :password"));
+    }
+
+    @Test
+    void getUsers_whenSearchByUnknownField_should_returnBadRequest() throws Exception {
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/v1/users/")
+                        .param("search", "password:secret")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.content().string("Unknown search field :password"));
     }
 
     @Test
@@ -107,6 +201,16 @@ class UserControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.firstName", Matchers.is("John")));
     }
 
+    @Test
+    void getUser_whenIfNoneMatchCurrentVersion_should_returnNotModified() throws Exception {
+        when(userService.findUserETag(user1.getId())).thenReturn(Optional.of("\"0\""));
+
+        mockMvc.perform(get("/api/v1/users/" + user1.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"0\""));
+        verify(userService, never()).findUserById(user1.getId());
+    }
+
     @Test
     void getUser_whenInValidId_should_throwResourceNotFoundException() throws Exception {
         when(userService.findUserById((99L))).thenReturn(Optional.empty());
@@ -117,6 +221,27 @@ class UserControllerTest {
                 .andExpect(result -> assertTrue(result.getResolvedException() instanceof ResourceNotFoundException));
     }
 
+    @Test
+    void getUserStats_whenValidId_should_getStats() throws Exception {
+        when(userService.findUserById(user1.getId())).thenReturn(Optional.of(user1));
+        when(taskStatsService.userStats(user1.getId())).thenReturn(new TaskStats(2, 1, 3, 1));
+
+        mockMvc.perform(get("/api/v1/users/" + user1.getId() + "/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.opened", is(2)))
+                .andExpect(jsonPath("$.inProgress", is(1)))
+                .andExpect(jsonPath("$.completed", is(3)))
+                .andExpect(jsonPath("$.overdue", is(1)));
+    }
+
+    @Test
+    void getUserStats_whenInValidId_should_throwResourceNotFoundException() throws Exception {
+        when(userService.findUserById(99L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/v1/users/99/stats"))
+                .andExpect(status().isNotFound())
+                .andExpect(result -> assertTrue(result.getResolvedException() instanceof ResourceNotFoundException));
+    }
 
     @Test
     void createUser_shouldReturnUser() throws Exception {
@@ -135,8 +260,7 @@ class UserControllerTest {
 
     @Test
     void deleteUser_whenValidId_shouldReturnIsOk() throws Exception {
-        when(userRepository.findById(user1.getId())).thenReturn(Optional.of(user1));
-        doNothing().when(userService).deleteUser(user1.getId());
+        when(userService.deleteUser(user1.getId())).thenReturn(true);
 
         mockMvc.perform(MockMvcRequestBuilders
                         .delete("/api/v1/users/" + user1.getId())
@@ -146,8 +270,7 @@ class UserControllerTest {
 
     @Test
     void deleteUser_whenInValidId_should_throwResourceNotFoundException() throws Exception {
-        when(userRepository.findById(99L)).thenReturn(Optional.empty());
-        doNothing().when(userService).deleteUser(user1.getId());
+        when(userService.deleteUser(99L)).thenReturn(false);
 
         mockMvc.perform(MockMvcRequestBuilders
                         .delete("/api/v1/users/" + 99)
@@ -0,0 +1,95 @@
+package com.recruitment.taskmanager.repositories;
+
+import com.recruitment.taskmanager.enums.Status;
+import com.recruitment.taskmanager.service.TaskSpecification;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks with EXPLAIN that the statements {@link TaskRepository} generates for the task filters
+ * are answered from the indexes created by the Flyway migrations instead of a table scan. The
+ * SQL is captured from Hibernate, so a change to the queries or to the mapping is covered too.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.recruitment.taskmanager.repositories.TaskIndexTest$RecordingStatementInspector")
+class TaskIndexTest {
+
+    @Autowired
+    TaskRepository taskRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        RecordingStatementInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    void statusAndDueDateFilter_then_useStatusDueDateIndex() {
+
+        taskRepository.findTasks(new TaskSpecification(null, Status.OPENED, null, LocalDate.of(2023, 2, 1), null), 10);
+
+        assertThat(explainLastStatement(Status.OPENED.name(), LocalDate.of(2023, 2, 1), 10))
+                .contains("IDX_TASK_STATUS_DUE_DATE");
+    }
+
+    @Test
+    void dueDateExpiredRange_then_useDueDateIndex() {
+
+        taskRepository.findAllWithDueDateExpired(LocalDate.of(2023, 2, 1));
+
+        assertThat(explainLastStatement(LocalDate.of(2023, 2, 1))).contains("IDX_TASK_DUE_DATE");
+    }
+
+    @Test
+    void titleFilter_then_useTitleIndex() {
+
+        taskRepository.findTasks(new TaskSpecification("firstTask", null, null, null, null), 10);
+
+        assertThat(explainLastStatement("firstTask", 10)).contains("IDX_TASK_TITLE");
+    }
+
+    @Test
+    void userFilter_then_useUserTaskIndex() {
+
+        taskRepository.findTasks(new TaskSpecification(null, null, 5L, null, null), 10);
+
+        assertThat(explainLastStatement(5L, 10)).contains("IDX_TASK_USERS_USER_TASK");
+    }
+
+    @Test
+    void usersOfTasks_then_useTaskUserPrimaryKey() {
+
+        taskRepository.findUsersOfTasks(List.of(1L, 2L, 3L));
+
+        assertThat(explainLastStatement(1L, 2L, 3L)).contains("PRIMARY_KEY");
+    }
+
+    // the bind values in the order of the placeholders of the captured statement
+    private String explainLastStatement(Object... parameters) {
+        List<String> statements = RecordingStatementInspector.STATEMENTS;
+        assertThat(statements).isNotEmpty();
+        return jdbcTemplate.queryForObject("EXPLAIN " + statements.get(statements.size() - 1), String.class, parameters);
+    }
+
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
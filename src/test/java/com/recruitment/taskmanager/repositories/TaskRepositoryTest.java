@@ -0,0 +1,376 @@
+package com.recruitment.taskmanager.repositories;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.recruitment.taskmanager.dto.AssignmentResult;
+import com.recruitment.taskmanager.dto.DeletedTask;
+import com.recruitment.taskmanager.dto.TaskAssignmentDto;
+import com.recruitment.taskmanager.dto.TaskBatchItem;
+import com.recruitment.taskmanager.dto.TaskDto;
+import com.recruitment.taskmanager.dto.TaskPage;
+import com.recruitment.taskmanager.dto.TaskStatusResult;
+import com.recruitment.taskmanager.dto.TaskView;
+import com.recruitment.taskmanager.dto.UserView;
+import com.recruitment.taskmanager.enums.BatchItemStatus;
+import com.recruitment.taskmanager.enums.Status;
+import com.recruitment.taskmanager.exceptions.UserExistedInTaskException;
+import com.recruitment.taskmanager.model.Task;
+import com.recruitment.taskmanager.model.User;
+import com.recruitment.taskmanager.service.TaskCursor;
+import com.recruitment.taskmanager.service.TaskService;
+import com.recruitment.taskmanager.service.TaskSpecification;
+import com.recruitment.taskmanager.service.UserIdMapper;
+import com.recruitment.taskmanager.service.UserService;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.SessionFactory;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import({TaskService.class, UserIdMapper.class, UserService.class})
+class TaskRepositoryTest {
+
+    @Autowired
+    TestEntityManager entityManager;
+    @Autowired
+    TaskRepository taskRepository;
+    @Autowired
+    TaskService taskService;
+
+    User user1;
+    Task noDueDate;
+    Task early;
+    Task sameDayFirst;
+    Task sameDaySecond;
+    Task late;
+
+    @BeforeEach
+    public void setUp() {
+        user1 = entityManager.persist(new User(null, "John", "Doe", "john@gmail.com", 18, new ArrayList<>()));
+        noDueDate = persistTask("noDueDate", null, List.of());
+        early = persistTask("early", LocalDate.of(2023, 1, 1), List.of(user1));
+        sameDayFirst = persistTask("sameDayFirst", LocalDate.of(2023, 2, 1), List.of());
+        sameDaySecond = persistTask("sameDaySecond", LocalDate.of(2023, 2, 1), List.of(user1));
+        late = persistTask("late", LocalDate.of(2023, 3, 1), List.of());
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findTasks_whenNoCursor_then_returnFirstPageOrderedByDueDateAndId() {
+
+        List<TaskView> tasks = taskRepository.findTasks(new TaskSpecification(null, null, null, null, null), 3);
+
+        assertThat(tasks).extracting(TaskView::getTitle).containsExactly("noDueDate", "early", "sameDayFirst");
+    }
+
+    @Test
+    void findTasks_whenCursor_then_seekPastCursor() {
+
+        List<TaskView> tasks = taskRepository.findTasks(new TaskSpecification(null, null, null, null,
+                new TaskCursor(sameDayFirst.getDueDate(), sameDayFirst.getId())), 10);
+
+        assertThat(tasks).extracting(TaskView::getTitle).containsExactly("sameDaySecond", "late");
+    }
+
+    @Test
+    void findTasks_whenCursorWithoutDueDate_then_continueWithDatedTasks() {
+
+        List<TaskView> tasks = taskRepository.findTasks(new TaskSpecification(null, null, null, null,
+                new TaskCursor(null, noDueDate.getId())), 10);
+
+        assertThat(tasks).extracting(TaskView::getTitle)
+                .containsExactly("early", "sameDayFirst", "sameDaySecond", "late");
+    }
+
+    @Test
+    void findTasks_whenUserFilter_then_returnEachTaskOnce() {
+
+        List<TaskView> tasks = taskRepository.findTasks(
+                new TaskSpecification(null, Status.OPENED, user1.getId(), null, null), 10);
+
+        assertThat(tasks).extracting(TaskView::getTitle).containsExactly("early", "sameDaySecond");
+    }
+
+    @Test
+    void findTasks_whenTitleAndDateFilter_then_applyOnlyThoseFilters() {
+
+        List<TaskView> tasks = taskRepository.findTasks(
+                new TaskSpecification("sameDayFirst", null, null, LocalDate.of(2023, 3, 1), null), 10);
+
+        assertThat(tasks).extracting(TaskView::getTitle).containsExactly("sameDayFirst");
+    }
+
+    @Test
+    void findTasks_whenPageOfTasksWithUsers_then_executeTwoStatements() throws Exception {
+
+        User user2 = entityManager.persist(new User(null, "Jane", "Smith", "jane@gmail.com", 23, new ArrayList<>()));
+        for (int i = 0; i < 20; i++) {
+            persistTask("task" + i, LocalDate.of(2024, 1, 1).plusDays(i), List.of(entityManager.find(User.class, user1.getId()), user2));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = statistics();
+
+        TaskPage page = taskService.findTasks(null, null, null, null, null, 20);
+        objectMapper().writeValueAsString(page);
+
+        assertThat(page.getTasks()).hasSize(20);
+        assertThat(page.getTasks().get(19).getUsers()).extracting(UserView::getFirstName).containsExactly("John", "Jane");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void findAllWithDueDateExpired_then_fetchUsersInSameStatement() throws Exception {
+
+        Statistics statistics = statistics();
+
+        List<Task> tasks = taskRepository.findAllWithDueDateExpired(LocalDate.of(2023, 2, 15));
+        objectMapper().writeValueAsString(tasks);
+
+        assertThat(tasks).extracting(Task::getTitle).containsExactlyInAnyOrder("early", "sameDayFirst", "sameDaySecond");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findById_then_fetchUsersInSameStatement() throws Exception {
+
+        Statistics statistics = statistics();
+
+        Task task = taskRepository.findById(early.getId()).orElseThrow();
+        objectMapper().writeValueAsString(task);
+
+        assertThat(task.getUsers()).extracting(User::getFirstName).containsExactly("John");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void createTasks_then_insertTasksAndUsersInJdbcBatches() {
+
+        List<TaskDto> taskDtos = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            taskDtos.add(new TaskDto("task" + i, "description of task" + i, new Long[]{user1.getId()}, null));
+        }
+        Statistics statistics = statistics();
+
+        List<TaskBatchItem> results = taskService.createTasks(taskDtos);
+        entityManager.flush();
+
+        assertThat(results).extracting(TaskBatchItem::getStatus).containsOnly(BatchItemStatus.CREATED);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(100);
+        // users lookup, two task_seq calls, one batched insert into task and one into task_users
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(5);
+    }
+
+    @Test
+    void addUserToTask_whenUserAlreadyAssigned_then_throwUserExistedInTaskException() {
+
+        assertThatThrownBy(() -> taskService.addUserToTask(user1.getId(), early.getId()))
+                .isInstanceOf(UserExistedInTaskException.class);
+    }
+
+    @Test
+    void removeUserFromTask_then_deleteJoinRow() {
+
+        taskService.removeUserFromTask(user1.getId(), early.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(taskRepository.findById(early.getId()).orElseThrow().getUsers()).isEmpty();
+    }
+
+    @Test
+    void addAndRemoveUser_whenTaskHasOtherUsers_then_writeOnlyThatJoinRowWithoutLoadingAssignees() {
+
+        User user2 = entityManager.persist(new User(null, "Jane", "Smith", "jane@gmail.com", 23, new ArrayList<>()));
+        User user3 = entityManager.persist(new User(null, "Adam", "Brown", "adam@gmail.com", 30, new ArrayList<>()));
+        Task task = persistTask("shared", LocalDate.of(2023, 4, 1), List.of(user1, user2));
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = statistics();
+
+        taskService.addUserToTask(user3.getId(), task.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        // user, locked task, missing pair, INSERT of the join row, version bump and first assignees, then the
+        // assignees of the response once the join row is written
+        assertThat(statistics.getCollectionLoadCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(7);
+
+        statistics = statistics();
+        taskService.removeUserFromTask(user1.getId(), task.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        // user, locked task, assigned pair, DELETE of the join row and version bump, then the assignees of the response
+        assertThat(statistics.getCollectionLoadCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(6);
+        Task changed = taskRepository.findById(task.getId()).orElseThrow();
+        assertThat(changed.getUsers()).extracting(User::getEmail).containsExactly("jane@gmail.com", "adam@gmail.com");
+        assertThat(changed.getVersion()).isEqualTo(2);
+    }
+
+    @Test
+    void findUsersOfTask_then_returnFirstAssigneesAndCount() {
+
+        User user2 = entityManager.persist(new User(null, "Jane", "Smith", "jane@gmail.com", 23, new ArrayList<>()));
+        User user3 = entityManager.persist(new User(null, "Adam", "Brown", "adam@gmail.com", 30, new ArrayList<>()));
+        Task task = persistTask("shared", LocalDate.of(2023, 4, 1), List.of(user3, user1, user2));
+        entityManager.flush();
+        entityManager.clear();
+
+        Page<User> users = taskRepository.findUsersOfTask(task.getId(), PageRequest.of(0, 2));
+
+        assertThat(users.getContent()).extracting(User::getId).containsExactly(user1.getId(), user2.getId());
+        assertThat(users.getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    void deleteTask_then_deleteTaskAndAssignmentsWithoutLoadingTask() {
+
+        Statistics statistics = statistics();
+
+        boolean deleted = taskService.deleteTask(early.getId());
+
+        // locked read of the task with its assignees and the two DELETEs
+        assertThat(deleted).isTrue();
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(taskRepository.findById(early.getId())).isEmpty();
+        assertThat(taskRepository.findById(sameDaySecond.getId()).orElseThrow().getUsers())
+                .extracting(User::getId).containsExactly(user1.getId());
+    }
+
+    @Test
+    void deleteWithAssignments_then_returnDeletedState() {
+
+        DeletedTask deleted = taskRepository.deleteWithAssignments(early.getId()).orElseThrow();
+
+        assertThat(deleted.getStatus()).isEqualTo(Status.OPENED);
+        assertThat(deleted.getDueDate()).isEqualTo(LocalDate.of(2023, 1, 1));
+        assertThat(deleted.getUserIds()).containsExactly(user1.getId());
+        assertThat(taskRepository.deleteWithAssignments(early.getId())).isEmpty();
+        assertThat(taskRepository.deleteWithAssignments(noDueDate.getId()).orElseThrow().getUserIds()).isEmpty();
+    }
+
+    @Test
+    void changeTasksStatus_whenIds_then_updateChunkWithOneStatement() {
+
+        taskService.changeTasksStatus(Status.COMPLETED, List.of(late.getId()));
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = statistics();
+
+        TaskStatusResult result = taskService.changeTasksStatus(Status.INPROGRESS,
+                List.of(early.getId(), sameDayFirst.getId(), late.getId(), early.getId(), 999L));
+
+        assertThat(result.getUpdated()).isEqualTo(2);
+        assertThat(result.getRejected()).isEqualTo(1);
+        assertThat(result.getNotFound()).isEqualTo(1);
+        // locking select, update and assignees of the updated tasks
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        Task updated = taskRepository.findById(early.getId()).orElseThrow();
+        assertThat(updated.getStatus()).isEqualTo(Status.INPROGRESS);
+        assertThat(updated.getVersion()).isEqualTo(1);
+        assertThat(taskRepository.findById(late.getId()).orElseThrow().getStatus()).isEqualTo(Status.COMPLETED);
+    }
+
+    @Test
+    void changeTasksStatus_whenFilter_then_updateMatchingTasksOnly() {
+
+        TaskStatusResult result = taskService.changeTasksStatus(Status.COMPLETED, null, Status.OPENED,
+                user1.getId(), null);
+        entityManager.clear();
+
+        assertThat(result.getUpdated()).isEqualTo(2);
+        assertThat(taskRepository.findTasks(new TaskSpecification(null, Status.COMPLETED, null, null, null), 10))
+                .extracting(TaskView::getTitle).containsExactly("early", "sameDaySecond");
+        assertThat(taskService.changeTasksStatus(Status.COMPLETED, null, null, user1.getId(), null).getUnchanged())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void addUsersToTasks_then_insertMissingPairsInOneStatement() {
+
+        User user2 = entityManager.persist(new User(null, "Jane", "Smith", "jane@gmail.com", 23, new ArrayList<>()));
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = statistics();
+
+        AssignmentResult result = taskService.addUsersToTasks(new TaskAssignmentDto(
+                List.of(early.getId(), late.getId()), List.of(user1.getId(), user2.getId())));
+        entityManager.clear();
+
+        assertThat(result.getChanged()).isEqualTo(3);
+        assertThat(result.getUnchanged()).isEqualTo(1);
+        // locked tasks, users, missing pairs, insert and version bump
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(5);
+        assertThat(taskRepository.findById(early.getId()).orElseThrow().getUsers())
+                .extracting(User::getFirstName).containsExactlyInAnyOrder("John", "Jane");
+        Task lateTask = taskRepository.findById(late.getId()).orElseThrow();
+        assertThat(lateTask.getUsers()).hasSize(2);
+        assertThat(lateTask.getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void insertJoinRow_whenPairAlreadyAssigned_then_rejectDuplicate() {
+
+        assertThatThrownBy(() -> entityManager.getEntityManager()
+                .createNativeQuery("INSERT INTO task_users (tasks_id, users_id) VALUES (:taskId, :userId)")
+                .setParameter("taskId", early.getId())
+                .setParameter("userId", user1.getId())
+                .executeUpdate())
+                .isInstanceOf(PersistenceException.class)
+                .hasCauseInstanceOf(ConstraintViolationException.class);
+    }
+
+    @Test
+    void removeUsersFromTasks_then_deleteAssignedPairsOnly() {
+
+        AssignmentResult result = taskService.removeUsersFromTasks(new TaskAssignmentDto(
+                List.of(early.getId(), late.getId(), sameDaySecond.getId()), List.of(user1.getId())));
+        entityManager.clear();
+
+        assertThat(result.getChanged()).isEqualTo(2);
+        assertThat(result.getUnchanged()).isEqualTo(1);
+        assertThat(taskRepository.findById(early.getId()).orElseThrow().getUsers()).isEmpty();
+        assertThat(taskRepository.findById(sameDaySecond.getId()).orElseThrow().getUsers()).isEmpty();
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private static ObjectMapper objectMapper() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        return objectMapper;
+    }
+
+    private Task persistTask(String title, LocalDate dueDate, List<User> users) {
+        Task task = new Task(null, title, "description of " + title, Status.OPENED, new ArrayList<>(users), dueDate);
+        return entityManager.persist(task);
+    }
+}
@@ -0,0 +1,142 @@
+package com.recruitment.taskmanager.repositories;
+
+import com.recruitment.taskmanager.dto.UserPage;
+import com.recruitment.taskmanager.enums.SearchOperation;
+import com.recruitment.taskmanager.enums.Status;
+import com.recruitment.taskmanager.model.Task;
+import com.recruitment.taskmanager.model.User;
+import com.recruitment.taskmanager.service.SearchCriteria;
+import com.recruitment.taskmanager.service.UserService;
+import com.recruitment.taskmanager.service.UserSpecification;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(UserService.class)
+class UserRepositoryTest {
+
+    @Autowired
+    TestEntityManager entityManager;
+    @Autowired
+    UserService userService;
+
+    UserSpecification all = new UserSpecification(List.of());
+
+    @BeforeEach
+    public void setUp() {
+        persistUser("John", "Doe", 18);
+        persistUser("Jane", "Smith", 23);
+        persistUser("John", "Smith", 40);
+        persistUser("Anna", "Brown", 31);
+        persistUser("Mark", "Adams", 52);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findUsers_then_returnSortedPagesWithoutCountQuery() {
+
+        Statistics statistics = statistics();
+
+        UserPage first = userService.findUsers(all, PageRequest.of(0, 2, Sort.by("lastName")), false);
+        UserPage last = userService.findUsers(all, PageRequest.of(2, 2, Sort.by("lastName")), false);
+
+        assertThat(first.getUsers()).extracting(User::getLastName).containsExactly("Adams", "Brown");
+        assertThat(first.isHasNext()).isTrue();
+        assertThat(first.getTotal()).isNull();
+        assertThat(last.getUsers()).extracting(User::getLastName).containsExactly("Smith");
+        assertThat(last.isHasNext()).isFalse();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void findUsers_whenSameSortValue_then_breakTiesById() {
+
+        Sort byLastNameDesc = Sort.by(Sort.Direction.DESC, "lastName");
+
+        UserPage first = userService.findUsers(all, PageRequest.of(0, 1, byLastNameDesc), false);
+        UserPage second = userService.findUsers(all, PageRequest.of(1, 1, byLastNameDesc), false);
+
+        assertThat(first.getUsers()).extracting(User::getFirstName).containsExactly("Jane");
+        assertThat(second.getUsers()).extracting(User::getFirstName).containsExactly("John");
+    }
+
+    @Test
+    void findUsers_whenSortedByIdDesc_then_returnNewestUsersFirst() {
+
+        UserPage page = userService.findUsers(all, PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "id")), false);
+
+        assertThat(page.getUsers()).extracting(User::getLastName).containsExactly("Adams", "Brown");
+    }
+
+    @Test
+    void findUsers_whenCount_then_returnTotalOfMatchingUsers() {
+
+        UserSpecification smiths = new UserSpecification(List.of(
+                new SearchCriteria("lastName", SearchOperation.MATCH, "Smith")));
+
+        UserPage page = userService.findUsers(smiths, PageRequest.of(0, 1), true);
+
+        assertThat(page.getUsers()).hasSize(1);
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(page.getTotal()).isEqualTo(2);
+    }
+
+    @Test
+    void findUsers_whenPageTooLarge_then_capPageSize() {
+
+        UserPage page = userService.findUsers(all, PageRequest.of(0, UserService.MAX_PAGE_SIZE + 1), false);
+
+        assertThat(page.getSize()).isEqualTo(UserService.MAX_PAGE_SIZE);
+        assertThat(page.getUsers()).hasSize(5);
+    }
+
+    @Test
+    void deleteUser_whenAssignedToTask_then_deleteAssignmentsAndUserInTwoStatements() {
+
+        User user = entityManager.find(User.class, userIds().get(0));
+        Task task = entityManager.persist(new Task(null, "Task", "Description", Status.OPENED,
+                new ArrayList<>(List.of(user)), null));
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = statistics();
+
+        boolean deleted = userService.deleteUser(user.getId());
+
+        assertThat(deleted).isTrue();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(entityManager.find(User.class, user.getId())).isNull();
+        assertThat(entityManager.find(Task.class, task.getId()).getUsers()).isEmpty();
+        assertThat(userService.deleteUser(user.getId())).isFalse();
+    }
+
+    private List<Long> userIds() {
+        return entityManager.getEntityManager().createQuery("select u.id from User u order by u.id", Long.class)
+                .getResultList();
+    }
+
+    private void persistUser(String firstName, String lastName, int age) {
+        entityManager.persist(new User(null, firstName, lastName, firstName.toLowerCase() + "." + lastName.toLowerCase()
+                + "@gmail.com", age, new ArrayList<>()));
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
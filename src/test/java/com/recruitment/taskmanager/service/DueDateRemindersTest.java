@@ -0,0 +1,165 @@
+package com.recruitment.taskmanager.service;
+
+import com.recruitment.taskmanager.config.ThymeleafTemplateConfig;
+import com.recruitment.taskmanager.enums.NotificationType;
+import com.recruitment.taskmanager.enums.Status;
+import com.recruitment.taskmanager.events.TaskChangedEvent;
+import com.recruitment.taskmanager.events.TaskReopenedEvent;
+import com.recruitment.taskmanager.model.OutboxEvent;
+import com.recruitment.taskmanager.model.Task;
+import com.recruitment.taskmanager.model.User;
+import com.recruitment.taskmanager.repositories.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.recruitment.taskmanager.service.TaskFixture.task;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest(properties = {"notifications.reminders.enabled=false", "notifications.reminders.due-soon-hours=24",
+        "spring.mail.username=taskmanager@gmail.com"})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ThymeleafTemplateConfig.class, EmailRenderer.class, EmailService.class, NotificationOutbox.class,
+        DueDateReminders.class, DueDateRemindersTest.MailConfig.class})
+// firing moves the timer wheel forward for good, so every test gets a fresh one
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class DueDateRemindersTest {
+
+    @Autowired
+    TestEntityManager entityManager;
+    @Autowired
+    DueDateReminders dueDateReminders;
+    @Autowired
+    OutboxEventRepository outboxEventRepository;
+
+    User user1;
+    User user2;
+    LocalDate dueDate;
+
+    @BeforeEach
+    public void setUp() {
+        user1 = entityManager.persist(new User(null, "John", "Doe", "john@gmail.com", 18, new ArrayList<>()));
+        user2 = entityManager.persist(new User(null, "Jane", "Smith", "jane@gmail.com", 23, new ArrayList<>()));
+        dueDate = LocalDate.now().plusDays(3);
+    }
+
+    @Test
+    void reload_then_scheduleOpenTasksNotDueYet() {
+
+        //given
+        task().title("open").dueDate(dueDate).users(user1).persist(entityManager);
+        task().title("completed").status(Status.COMPLETED).dueDate(dueDate).users(user1).persist(entityManager);
+        task().title("expired").dueDate(LocalDate.now().minusDays(1)).users(user1).persist(entityManager);
+        entityManager.flush();
+
+        //when
+        int loaded = dueDateReminders.reload();
+
+        //then
+        assertThat(loaded).isEqualTo(1);
+        assertThat(dueDateReminders.pending()).isEqualTo(2);
+    }
+
+    @Test
+    void fireDue_then_writeDueSoonAndOverdueNotificationsForEveryAssignee() {
+
+        //given
+        Task task = task().title("report").dueDate(dueDate).users(user1, user2).persist(entityManager);
+        dueDateReminders.onTaskChanged(TaskChangedEvent.saved(task));
+
+        //when
+        int dueSoon = dueDateReminders.fireDue(startOf(dueDate).minus(Duration.ofHours(24)));
+        int overdue = dueDateReminders.fireDue(startOf(dueDate.plusDays(1)));
+
+        //then
+        assertThat(dueSoon).isEqualTo(1);
+        assertThat(overdue).isEqualTo(1);
+        assertThat(outboxEventRepository.findAll())
+                .extracting(OutboxEvent::getType, OutboxEvent::getRecipient)
+                .containsExactlyInAnyOrder(
+                        tuple(NotificationType.DUE_SOON, "john@gmail.com"),
+                        tuple(NotificationType.DUE_SOON, "jane@gmail.com"),
+                        tuple(NotificationType.OVERDUE, "john@gmail.com"),
+                        tuple(NotificationType.OVERDUE, "jane@gmail.com"));
+    }
+
+    @Test
+    void fireDue_whenTaskCompletedDeletedOrRescheduled_then_dropReminder() {
+
+        //given
+        Task completed = task().title("completed").dueDate(dueDate).users(user1).persist(entityManager);
+        Task deleted = task().title("deleted").dueDate(dueDate).users(user1).persist(entityManager);
+        Task rescheduled = task().title("rescheduled").dueDate(dueDate).users(user1).persist(entityManager);
+        List.of(completed, deleted, rescheduled)
+                .forEach(task -> dueDateReminders.onTaskChanged(TaskChangedEvent.saved(task)));
+        completed.setStatus(Status.COMPLETED);
+        entityManager.remove(deleted);
+        rescheduled.setDueDate(dueDate.plusDays(10));
+        entityManager.flush();
+
+        //when
+        int sent = dueDateReminders.fireDue(startOf(dueDate.plusDays(1)));
+
+        //then
+        assertThat(sent).isZero();
+        assertThat(dueDateReminders.pending()).isZero();
+        assertThat(outboxEventRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    void onTaskReopened_then_scheduleRemindersAgain() {
+
+        //given
+        Task task = task().title("reopened").status(Status.COMPLETED).dueDate(dueDate).users(user1).persist(entityManager);
+        entityManager.flush();
+        dueDateReminders.reload();
+        task.setStatus(Status.OPENED);
+        entityManager.flush();
+
+        //when
+        dueDateReminders.onTaskReopened(new TaskReopenedEvent(task.getId(), dueDate));
+        int sent = dueDateReminders.fireDue(startOf(dueDate.plusDays(1)));
+
+        //then
+        assertThat(sent).isEqualTo(2);
+        assertThat(outboxEventRepository.findAll())
+                .extracting(OutboxEvent::getType)
+                .containsExactlyInAnyOrder(NotificationType.DUE_SOON, NotificationType.OVERDUE);
+    }
+
+    private static Instant startOf(LocalDate date) {
+        return date.atStartOfDay(ZoneId.systemDefault()).toInstant();
+    }
+
+    @TestConfiguration
+    static class MailConfig {
+
+        @Bean
+        FakeJavaMailSender fakeJavaMailSender() {
+            return new FakeJavaMailSender();
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.recruitment.taskmanager.service;
+
+import com.recruitment.taskmanager.config.ThymeleafTemplateConfig;
+import com.recruitment.taskmanager.model.Email;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringJUnitConfig({ThymeleafTemplateConfig.class, EmailRenderer.class})
+class EmailRendererTest {
+
+    @Autowired
+    EmailRenderer emailRenderer;
+    @Autowired
+    SpringTemplateEngine templateEngine;
+
+    @Test
+    void render_whenEmailsOfOneTask_then_fillInEscapedNameOfEachRecipient() {
+
+        List<String> bodies = emailRenderer.render(List.of(
+                email("removed-from-task-template.html", "John", "Quarterly audit"),
+                email("removed-from-task-template.html", "<b>Jane</b>", "Quarterly audit")));
+
+        assertThat(bodies.get(0)).contains("John").contains("Quarterly audit");
+        assertThat(bodies.get(1)).contains("&lt;b&gt;Jane&lt;/b&gt;").doesNotContain("<b>Jane").doesNotContain("John");
+    }
+
+    @Test
+    void render_whenEmailsOfDifferentTasks_then_renderEachTask() {
+
+        List<String> bodies = emailRenderer.render(List.of(
+                email("removed-from-task-template.html", "John", "Quarterly audit"),
+                email("removed-from-task-template.html", "John", "Plan sprint")));
+
+        assertThat(bodies.get(0)).contains("Quarterly audit");
+        assertThat(bodies.get(1)).contains("Plan sprint");
+    }
+
+    @Test
+    void render_then_matchPlainTemplateProcessing() {
+
+        Email email = email("added-to-task-template.html", "John", "Quarterly audit");
+        email.getProperties().put("users", List.of("John Doe", "Jane Smith"));
+
+        Context context = new Context();
+        context.setVariables(email.getProperties());
+
+        assertThat(emailRenderer.render(email)).isEqualTo(templateEngine.process(email.getTemplate(), context));
+    }
+
+    @Test
+    void render_whenBulkAssignment_then_listEveryTask() {
+
+        Email email = email("added-to-tasks-template.html", "John", null);
+        email.getProperties().put("tasks", List.of("Quarterly audit (due 2023-01-08)", "Plan sprint"));
+
+        assertThat(emailRenderer.render(email)).contains("John").contains("Quarterly audit (due 2023-01-08)")
+                .contains("Plan sprint");
+    }
+
+    @Test
+    void render_whenMoreTasksThanListed_then_countTheRest() {
+
+        Email email = email("removed-from-tasks-template.html", "John", null);
+        email.getProperties().put("tasks", List.of("Quarterly audit", "Plan sprint"));
+        email.getProperties().put("moreTasks", 3);
+
+        assertThat(emailRenderer.render(email)).contains("Plan sprint").contains("and 3 more");
+    }
+
+    @Test
+    void render_whenAllTasksListed_then_notCountTheRest() {
+
+        Email email = email("removed-from-tasks-template.html", "John", null);
+        email.getProperties().put("tasks", List.of("Quarterly audit", "Plan sprint"));
+        email.getProperties().put("moreTasks", 0);
+
+        assertThat(emailRenderer.render(email)).contains("Plan sprint").doesNotContain("more");
+    }
+
+    private static Email email(String template, String name, String title) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("name", name);
+        properties.put("title", title);
+        return new Email(name + "@example.com", "tasks@example.com", "Subject", null, template, properties);
+    }
+}
@@ -0,0 +1,57 @@
+package com.recruitment.taskmanager.service;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory {@link JavaMailSenderImpl} which records every batch instead of talking to an SMTP server.
+ */
+class FakeJavaMailSender extends JavaMailSenderImpl {
+
+    private final List<List<MimeMessage>> batches = new ArrayList<>();
+    private int failingBatches;
+    private boolean sentInTransaction;
+
+    synchronized void reset() {
+        batches.clear();
+        failingBatches = 0;
+        sentInTransaction = false;
+    }
+
+    synchronized boolean isSentInTransaction() {
+        return sentInTransaction;
+    }
+
+    synchronized void failNextBatches(int count) {
+        failingBatches = count;
+    }
+
+    synchronized List<List<MimeMessage>> getBatches() {
+        return new ArrayList<>(batches);
+    }
+
+    synchronized int sentMessages() {
+        return batches.stream().mapToInt(List::size).sum();
+    }
+
+    @Override
+    protected synchronized void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) {
+        sentInTransaction |= TransactionSynchronizationManager.isActualTransactionActive();
+        if (failingBatches > 0) {
+            failingBatches--;
+            Map<Object, Exception> failed = new LinkedHashMap<>();
+            Arrays.stream(mimeMessages).forEach(message -> failed.put(message, new MessagingException("421 try later")));
+            throw new MailSendException(failed);
+        }
+        batches.add(List.of(mimeMessages));
+    }
+}
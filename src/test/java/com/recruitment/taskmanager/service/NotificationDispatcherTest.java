@@ -0,0 +1,192 @@
+package com.recruitment.taskmanager.service;
+
+import com.recruitment.taskmanager.config.ThymeleafTemplateConfig;
+import com.recruitment.taskmanager.dto.TaskView;
+import com.recruitment.taskmanager.enums.OutboxStatus;
+import com.recruitment.taskmanager.enums.Status;
+import com.recruitment.taskmanager.events.TaskAssignmentsEvent;
+import com.recruitment.taskmanager.events.TaskNotificationEvent;
+import com.recruitment.taskmanager.model.OutboxEvent;
+import com.recruitment.taskmanager.model.Task;
+import com.recruitment.taskmanager.model.User;
+import com.recruitment.taskmanager.repositories.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.InternetAddress;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {"notifications.workers=0", "notifications.max-attempts=3",
+        "spring.mail.username=taskmanager@gmail.com"})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ThymeleafTemplateConfig.class, EmailRenderer.class, EmailService.class, NotificationOutbox.class,
+        NotificationDispatcher.class, NotificationDispatcherTest.MailConfig.class})
+class NotificationDispatcherTest {
+
+    @Autowired
+    FakeJavaMailSender mailSender;
+    @Autowired
+    MeterRegistry meterRegistry;
+    @Autowired
+    NotificationOutbox notificationOutbox;
+    @Autowired
+    NotificationDispatcher dispatcher;
+    @Autowired
+    OutboxEventRepository outboxEventRepository;
+
+    User user1;
+    User user2;
+    Task task1;
+
+    @BeforeEach
+    public void setUp() {
+        mailSender.reset();
+        user1 = new User(1L, "John", "Doe", "john@gmail.com", 18, null);
+        user2 = new User(2L, "Jane", "Smith", "jane@gmail.com", 23, null);
+        task1 = new Task(1L, "firstTask", "This is first tested task", Status.OPENED,
+                new ArrayList<>(List.of(user1, user2)), LocalDate.of(2023, 1, 8));
+    }
+
+    @Test
+    void onTaskNotification_should_writePendingRowPerRecipient() {
+
+        notificationOutbox.onTaskNotification(TaskNotificationEvent.addedToTask(task1, task1.getUsers()));
+
+        assertThat(outboxEventRepository.findAll())
+                .hasSize(2)
+                .allMatch(outboxEvent -> outboxEvent.getStatus() == OutboxStatus.PENDING)
+                .extracting(OutboxEvent::getRecipient).containsExactly("john@gmail.com", "jane@gmail.com");
+        assertThat(mailSender.sentMessages()).isZero();
+    }
+
+    @Test
+    void onTaskNotification_whenTaskHasManyUsers_should_listOnlyFirstUsersInEachRow() {
+
+        List<User> users = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            users.add(new User(id, "User", "No" + id, "user" + id + "@gmail.com", 30, null));
+        }
+        Task task = new Task(3L, "thirdTask", "This is third tested task", Status.OPENED, users, null);
+
+        notificationOutbox.onTaskNotification(TaskNotificationEvent.addedToTask(task, task.getUsers()));
+
+        assertThat(outboxEventRepository.findAll())
+                .hasSize(1000)
+                .allMatch(outboxEvent -> outboxEvent.getPayload().length() < 10000)
+                .allMatch(outboxEvent -> outboxEvent.getPayload().contains("\"moreUsers\":990"));
+    }
+
+    @Test
+    void onTaskAssignments_should_writeOneRowListingAllTasks() throws Exception {
+
+        Task task2 = new Task(2L, "secondTask", "This is second tested task", Status.OPENED, new ArrayList<>(), null);
+
+        notificationOutbox.onTaskAssignments(TaskAssignmentsEvent.addedToTasks(user1,
+                List.of(TaskView.of(task1), TaskView.of(task2))));
+
+        assertThat(outboxEventRepository.findAll()).singleElement()
+                .extracting(OutboxEvent::getRecipient).isEqualTo("john@gmail.com");
+        assertThat(dispatcher.dispatchPending()).isEqualTo(1);
+        assertThat(mailSender.getBatches().get(0).get(0).getSubject()).isEqualTo("Added to tasks");
+    }
+
+    @Test
+    void dispatchPending_should_sendWholeBatchInOneSendAndMarkSent() throws Exception {
+
+        notificationOutbox.onTaskNotification(TaskNotificationEvent.addedToTask(task1, task1.getUsers()));
+
+        assertThat(dispatcher.dispatchPending()).isEqualTo(2);
+
+        assertThat(mailSender.getBatches()).hasSize(1);
+        assertThat(mailSender.getBatches().get(0)).hasSize(2);
+        assertThat(mailSender.getBatches().get(0).get(0).getAllRecipients())
+                .containsExactly(new InternetAddress("john@gmail.com"));
+        assertThat(outboxEventRepository.countByStatus(OutboxStatus.SENT)).isEqualTo(2);
+        assertThat(meterRegistry.get("email.send").tag("operation", "sendBatch").tag("outcome", "success").timer().count())
+                .isPositive();
+        assertThat(meterRegistry.get("notifications.outbox.pending").gauge().value()).isZero();
+        assertThat(dispatcher.dispatchPending()).isZero();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void dispatchPending_should_sendOutsideOfClaimTransaction() {
+
+        try {
+            notificationOutbox.onTaskNotification(TaskNotificationEvent.removedFromTask(task1, user1));
+
+            assertThat(dispatcher.dispatchPending()).isEqualTo(1);
+
+            assertThat(mailSender.sentMessages()).isEqualTo(1);
+            assertThat(mailSender.isSentInTransaction()).isFalse();
+            assertThat(outboxEventRepository.countByStatus(OutboxStatus.SENT)).isEqualTo(1);
+        } finally {
+            outboxEventRepository.deleteAll();
+        }
+    }
+
+    @Test
+    void dispatchPending_whenSendFails_should_rescheduleWithBackoff() {
+
+        mailSender.failNextBatches(1);
+        notificationOutbox.onTaskNotification(TaskNotificationEvent.removedFromTask(task1, user1));
+
+        dispatcher.dispatchPending();
+
+        OutboxEvent outboxEvent = outboxEventRepository.findAll().iterator().next();
+        assertThat(outboxEvent.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(outboxEvent.getAttempts()).isEqualTo(1);
+        assertThat(outboxEvent.getNextAttemptAt()).isAfter(outboxEvent.getCreatedAt());
+        assertThat(dispatcher.dispatchPending()).isZero();
+    }
+
+    @Test
+    void dispatchPending_whenAllAttemptsFail_should_markFailedAndAllowReplay() {
+
+        double failedBefore = meterRegistry.get("notifications.emails").tag("outcome", "failed").counter().count();
+        mailSender.failNextBatches(3);
+        notificationOutbox.onTaskNotification(TaskNotificationEvent.removedFromTask(task1, user1));
+        OutboxEvent outboxEvent = outboxEventRepository.findAll().iterator().next();
+
+        for (int i = 0; i < 3; i++) {
+            outboxEvent.setNextAttemptAt(outboxEvent.getCreatedAt());
+            dispatcher.dispatchPending();
+        }
+
+        assertThat(outboxEvent.getStatus()).isEqualTo(OutboxStatus.FAILED);
+        assertThat(meterRegistry.get("notifications.emails").tag("outcome", "failed").counter().count()).isEqualTo(failedBefore + 1);
+
+        assertThat(dispatcher.replayFailed()).isEqualTo(1);
+        assertThat(dispatcher.dispatchPending()).isEqualTo(1);
+        assertThat(mailSender.sentMessages()).isEqualTo(1);
+    }
+
+    @TestConfiguration
+    static class MailConfig {
+
+        @Bean
+        FakeJavaMailSender fakeJavaMailSender() {
+            return new FakeJavaMailSender();
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
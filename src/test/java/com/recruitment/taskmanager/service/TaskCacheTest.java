@@ -0,0 +1,166 @@
+package com.recruitment.taskmanager.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.recruitment.taskmanager.config.CacheConfig;
+import com.recruitment.taskmanager.dto.TaskView;
+import com.recruitment.taskmanager.dto.UserDto;
+import com.recruitment.taskmanager.dto.UserView;
+import com.recruitment.taskmanager.enums.Status;
+import com.recruitment.taskmanager.exceptions.UserExistedInTaskException;
+import com.recruitment.taskmanager.model.Task;
+import com.recruitment.taskmanager.model.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheType;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.core.AutoConfigureCache;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureCache(cacheProvider = CacheType.CAFFEINE)
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import({CacheConfig.class, TaskService.class, UserService.class, UserIdMapper.class})
+class TaskCacheTest {
+
+    @Autowired
+    TestEntityManager entityManager;
+    @Autowired
+    CacheManager cacheManager;
+    @Autowired
+    TaskService taskService;
+    @Autowired
+    UserService userService;
+
+    User user1;
+    Task task1;
+
+    @BeforeEach
+    public void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        user1 = entityManager.persist(new User(null, "John", "Doe", "john@gmail.com", 18, new ArrayList<>()));
+        task1 = entityManager.persist(new Task(null, "firstTask", "This is first tested task", Status.OPENED,
+                new ArrayList<>(List.of(user1)), LocalDate.of(2023, 1, 8)));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findTaskById_whenCalledTwice_then_queryDatabaseOnce() {
+
+        Statistics statistics = statistics();
+        long hitsBefore = nativeCache(CacheConfig.TASKS).stats().hitCount();
+
+        taskService.findTaskById(task1.getId());
+        TaskView task = taskService.findTaskById(task1.getId()).orElseThrow().getTask();
+
+        assertThat(task.getUsers()).extracting(UserView::getFirstName).containsExactly("John");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(nativeCache(CacheConfig.TASKS).stats().hitCount()).isEqualTo(hitsBefore + 1);
+    }
+
+    @Test
+    void findTaskById_then_shareUnmodifiableView() {
+
+        TaskView task = taskService.findTaskById(task1.getId()).orElseThrow().getTask();
+        UserView user = task.getUsers().get(0);
+
+        assertThatThrownBy(() -> task.getUsers().add(user)).isInstanceOf(UnsupportedOperationException.class);
+        assertThat(taskService.findTaskById(task1.getId()).orElseThrow().getTask().getUsers()).hasSize(1);
+    }
+
+    @Test
+    void findTaskById_whenTaskMissing_then_doNotCacheMiss() {
+
+        taskService.findTaskById(-1L);
+
+        assertThat(nativeCache(CacheConfig.TASKS).estimatedSize()).isZero();
+    }
+
+    @Test
+    void changeTaskStatus_then_evictCachedTask() {
+
+        taskService.findTaskById(task1.getId());
+
+        taskService.changeTaskStatus(Status.COMPLETED, task1.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(taskService.findTaskById(task1.getId()).orElseThrow().getTask().getStatus())
+                .isEqualTo(Status.COMPLETED);
+    }
+
+    @Test
+    void updateUser_then_evictUserAndTasksEmbeddingIt() {
+
+        taskService.findTaskById(task1.getId());
+        userService.findUserById(user1.getId());
+
+        userService.updateUser(user1.getId(), new UserDto("Johnny", "Doe", "john@gmail.com", 18));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(userService.findUserById(user1.getId()).orElseThrow().getFirstName()).isEqualTo("Johnny");
+        assertThat(taskService.findTaskById(task1.getId()).orElseThrow().getTask().getUsers())
+                .extracting(UserView::getFirstName).containsExactly("Johnny");
+    }
+
+    @Test
+    void findTaskETag_then_matchLoadedTaskAndChangeWithTaskOrAssignee() {
+
+        String eTag = taskService.findTaskETag(task1.getId()).orElseThrow();
+        assertThat(eTag).isEqualTo(taskService.findTaskById(task1.getId()).orElseThrow().getETag());
+
+        taskService.changeTaskStatus(Status.COMPLETED, task1.getId());
+        entityManager.flush();
+        entityManager.clear();
+        String afterStatusChange = taskService.findTaskETag(task1.getId()).orElseThrow();
+
+        userService.updateUser(user1.getId(), new UserDto("Johnny", "Doe", "john@gmail.com", 18));
+        entityManager.flush();
+        entityManager.clear();
+        String afterUserChange = taskService.findTaskETag(task1.getId()).orElseThrow();
+
+        assertThat(List.of(eTag, afterStatusChange, afterUserChange)).doesNotHaveDuplicates();
+        assertThat(afterUserChange).isEqualTo(taskService.findTaskById(task1.getId()).orElseThrow().getETag());
+        assertThat(taskService.findTaskETag(-1L)).isEmpty();
+    }
+
+    @Test
+    void addUserToTask_whenCachedUserAlreadyAssigned_then_throwUserExistedInTaskException() {
+
+        userService.findUserById(user1.getId());
+        entityManager.clear();
+        Statistics statistics = statistics();
+
+        assertThatThrownBy(() -> taskService.addUserToTask(user1.getId(), task1.getId()))
+                .isInstanceOf(UserExistedInTaskException.class);
+        // locked task and the missing pair, no user lookup
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<Object, Object> nativeCache(String name) {
+        return (Cache<Object, Object>) cacheManager.getCache(name).getNativeCache();
+    }
+}
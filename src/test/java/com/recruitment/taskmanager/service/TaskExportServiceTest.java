@@ -0,0 +1,92 @@
+package com.recruitment.taskmanager.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.recruitment.taskmanager.enums.ExportFormat;
+import com.recruitment.taskmanager.enums.Status;
+import com.recruitment.taskmanager.model.Task;
+import com.recruitment.taskmanager.model.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.stream.Collectors.joining;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(TaskExportService.class)
+class TaskExportServiceTest {
+
+    @Autowired
+    TestEntityManager entityManager;
+    @Autowired
+    TaskExportService taskExportService;
+    @Autowired
+    ObjectMapper objectMapper;
+
+    Task withoutUsers;
+    Task withUsers;
+
+    @BeforeEach
+    public void setUp() {
+        User user1 = entityManager.persist(new User(null, "John", "Doe", "john@gmail.com", 18, new ArrayList<>()));
+        User user2 = entityManager.persist(new User(null, "Jane", "Smith", "jane@gmail.com", 23, new ArrayList<>()));
+        withoutUsers = entityManager.persist(new Task(null, "firstTask", "first, \"quoted\" description",
+                Status.OPENED, new ArrayList<>(), null));
+        withUsers = entityManager.persist(new Task(null, "secondTask", "second description",
+                Status.COMPLETED, new ArrayList<>(List.of(user1, user2)), LocalDate.of(2023, 1, 8)));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void exportTasks_whenNdjson_then_writeOneTaskPerLineInSingleQuery() throws Exception {
+
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long exported = taskExportService.exportTasks(ExportFormat.NDJSON, output);
+
+        List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(exported).isEqualTo(2);
+        assertThat(lines).hasSize(2);
+        JsonNode second = objectMapper.readTree(lines.get(1));
+        assertThat(second.get("id").asLong()).isEqualTo(withUsers.getId());
+        assertThat(second.get("dueDate").asText()).isEqualTo("2023-01-08");
+        assertThat(second.get("users")).extracting(user -> user.get("firstName").asText()).containsExactly("John", "Jane");
+        assertThat(objectMapper.readTree(lines.get(0)).get("users")).isEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void exportTasks_whenCsv_then_writeHeaderAndEscapedRows() throws Exception {
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        taskExportService.exportTasks(ExportFormat.CSV, output);
+
+        assertThat(output.toString(StandardCharsets.UTF_8).lines().toList()).containsExactly(
+                "id,title,description,status,dueDate,userIds,userEmails",
+                withoutUsers.getId() + ",firstTask,\"first, \"\"quoted\"\" description\",OPENED,,,",
+                withUsers.getId() + ",secondTask,second description,COMPLETED,2023-01-08,"
+                        + withUsers.getUsers().stream().map(user -> user.getId().toString()).collect(joining(";"))
+                        + ",john@gmail.com;jane@gmail.com");
+    }
+}
@@ -0,0 +1,59 @@
+package com.recruitment.taskmanager.service;
+
+import com.recruitment.taskmanager.enums.Status;
+import com.recruitment.taskmanager.model.Task;
+import com.recruitment.taskmanager.model.User;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Builds the tasks of the service tests, fields a test does not set get valid defaults.
+ */
+class TaskFixture {
+
+    private String title = "Task";
+    private String description = "Description";
+    private Status status = Status.OPENED;
+    private LocalDate dueDate;
+    private List<User> users = List.of();
+
+    static TaskFixture task() {
+        return new TaskFixture();
+    }
+
+    TaskFixture title(String title) {
+        this.title = title;
+        return this;
+    }
+
+    TaskFixture description(String description) {
+        this.description = description;
+        return this;
+    }
+
+    TaskFixture status(Status status) {
+        this.status = status;
+        return this;
+    }
+
+    TaskFixture dueDate(LocalDate dueDate) {
+        this.dueDate = dueDate;
+        return this;
+    }
+
+    TaskFixture users(User... users) {
+        this.users = Arrays.asList(users);
+        return this;
+    }
+
+    Task build() {
+        return new Task(null, title, description, status, users, dueDate);
+    }
+
+    Task persist(TestEntityManager entityManager) {
+        return entityManager.persist(build());
+    }
+}
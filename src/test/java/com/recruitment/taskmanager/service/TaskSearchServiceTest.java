@@ -0,0 +1,156 @@
+package com.recruitment.taskmanager.service;
+
+import com.recruitment.taskmanager.dto.TaskDto;
+import com.recruitment.taskmanager.dto.TaskSearchPage;
+import com.recruitment.taskmanager.dto.TaskView;
+import com.recruitment.taskmanager.dto.UserView;
+import com.recruitment.taskmanager.events.TaskChangedEvent;
+import com.recruitment.taskmanager.exceptions.InvalidSearchException;
+import com.recruitment.taskmanager.exceptions.SearchIndexNotReadyException;
+import com.recruitment.taskmanager.model.Task;
+import com.recruitment.taskmanager.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+
+import static com.recruitment.taskmanager.service.TaskFixture.task;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@DataJpaTest
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import({TaskSearchService.class, TaskService.class, UserIdMapper.class, UserService.class})
+class TaskSearchServiceTest {
+
+    @Autowired
+    TestEntityManager entityManager;
+    @Autowired
+    TaskSearchService taskSearchService;
+    @Autowired
+    TaskService taskService;
+    @SpyBean
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void searchTasks_then_rankTitleMatchesFirstAndAttachUsers() {
+
+        User user = entityManager.persist(new User(null, "John", "Doe", "john@gmail.com", 18, new ArrayList<>()));
+        task().title("Write invoice report").description("Monthly numbers").users(user).persist(entityManager);
+        task().title("Call customer").description("Ask about the unpaid invoice").persist(entityManager);
+        task().title("Plan sprint").description("Nothing to do with money").persist(entityManager);
+        entityManager.flush();
+        assertThat(taskSearchService.rebuildIndex()).isEqualTo(3);
+
+        TaskSearchPage page = taskSearchService.searchTasks("invoice", 0, 10);
+
+        assertThat(page.getTasks()).extracting(TaskView::getTitle).containsExactly("Write invoice report", "Call customer");
+        assertThat(page.getTasks().get(0).getUsers()).extracting(UserView::getEmail).containsExactly("john@gmail.com");
+        assertThat(page.getTotal()).isEqualTo(2);
+        assertThat(page.isTotalExact()).isTrue();
+    }
+
+    @Test
+    void searchTasks_whenSeveralTerms_then_requireAllOfThem() {
+
+        task().title("Write invoice report").description("Monthly numbers").persist(entityManager);
+        task().title("Write release notes").description("For the monthly release").persist(entityManager);
+        entityManager.flush();
+        taskSearchService.rebuildIndex();
+
+        assertThat(taskSearchService.searchTasks("monthly write release", 0, 10).getTasks())
+                .extracting(TaskView::getTitle).containsExactly("Write release notes");
+        assertThat(taskSearchService.searchTasks("\"invoice report\"", 0, 10).getTasks())
+                .extracting(TaskView::getTitle).containsExactly("Write invoice report");
+    }
+
+    @Test
+    void searchTasks_whenSecondPage_then_skipFirstPage() {
+
+        for (int i = 0; i < 5; i++) {
+            task().title("Review " + i).description("Code review").persist(entityManager);
+        }
+        entityManager.flush();
+        taskSearchService.rebuildIndex();
+
+        TaskSearchPage first = taskSearchService.searchTasks("review", 0, 3);
+        TaskSearchPage second = taskSearchService.searchTasks("review", 1, 3);
+
+        assertThat(first.getTasks()).hasSize(3);
+        assertThat(second.getTasks()).hasSize(2);
+        assertThat(second.getTotal()).isEqualTo(5);
+        assertThat(second.getTasks()).extracting(TaskView::getId)
+                .doesNotContainAnyElementsOf(first.getTasks().stream().map(TaskView::getId).toList());
+    }
+
+    @Test
+    void createAndDeleteTask_then_updateIndexAfterCommit() {
+
+        taskSearchService.rebuildIndex();
+        Task task = taskService.createTask(new TaskDto("Quarterly audit", "Prepare documents", new Long[0],
+                LocalDate.of(2023, 1, 8)));
+
+        assertThat(taskSearchService.searchTasks("audit", 0, 10).getTasks()).isEmpty();
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        assertThat(taskSearchService.searchTasks("audit", 0, 10).getTasks())
+                .extracting(TaskView::getId).containsExactly(task.getId());
+
+        TestTransaction.start();
+        taskService.deleteTask(task.getId());
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        assertThat(taskSearchService.searchTasks("audit", 0, 10).getTasks()).isEmpty();
+    }
+
+    @Test
+    void rebuildIndex_whenTaskDeletedDuringRebuild_then_leaveItOut() {
+
+        Task deleted = task().title("Quarterly audit").persist(entityManager);
+        task().title("Annual audit").persist(entityManager);
+        entityManager.flush();
+        doAnswer(invocation -> {
+            // the delete commits while the scan runs, but the scan still returns the row it read before
+            taskSearchService.onTaskChanged(TaskChangedEvent.deleted(deleted.getId()));
+            return invocation.callRealMethod();
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        taskSearchService.rebuildIndex();
+
+        assertThat(taskSearchService.searchTasks("audit", 0, 10).getTasks())
+                .extracting(TaskView::getTitle).containsExactly("Annual audit");
+    }
+
+    @Test
+    void searchTasks_whenIndexNotBuiltYet_thenThrowSearchIndexNotReadyException() {
+
+        TaskSearchService notBuilt = new TaskSearchService(taskService, jdbcTemplate);
+
+        assertThatThrownBy(() -> notBuilt.searchTasks("audit", 0, 10))
+                .isExactlyInstanceOf(SearchIndexNotReadyException.class);
+    }
+
+    @Test
+    void searchTasks_whenBlankQueryOrTooDeepPage_thenThrowInvalidSearchException() {
+
+        assertThatThrownBy(() -> taskSearchService.searchTasks(" ", 0, 10))
+                .isExactlyInstanceOf(InvalidSearchException.class);
+        assertThatThrownBy(() -> taskSearchService.searchTasks("review", TaskSearchService.MAX_RESULTS, 10))
+                .isExactlyInstanceOf(InvalidSearchException.class);
+    }
+}
@@ -1,11 +1,31 @@
 package com.recruitment.taskmanager.service;
 
+import com.recruitment.taskmanager.dto.AssignmentResult;
+import com.recruitment.taskmanager.dto.CachedTask;
+import com.recruitment.taskmanager.dto.DeletedTask;
+import com.recruitment.taskmanager.dto.TaskAssignment;
+import com.recruitment.taskmanager.dto.TaskAssignmentDto;
+import com.recruitment.taskmanager.dto.TaskBatchItem;
 import com.recruitment.taskmanager.dto.TaskDto;
+import com.recruitment.taskmanager.dto.TaskPage;
+import com.recruitment.taskmanager.dto.TaskUserView;
+import com.recruitment.taskmanager.dto.TaskView;
+import com.recruitment.taskmanager.dto.UserView;
+import com.recruitment.taskmanager.enums.BatchItemStatus;
+import com.recruitment.taskmanager.enums.NotificationType;
+import com.recruitment.taskmanager.enums.OutboxStatus;
 import com.recruitment.taskmanager.enums.Status;
+import com.recruitment.taskmanager.events.TaskAssignmentsEvent;
+import com.recruitment.taskmanager.events.TaskNotificationEvent;
+import com.recruitment.taskmanager.events.TaskReopenedEvent;
+import com.recruitment.taskmanager.events.TaskStatsEvent;
+import com.recruitment.taskmanager.exceptions.BatchTooLargeException;
+import com.recruitment.taskmanager.exceptions.InvalidCursorException;
 import com.recruitment.taskmanager.exceptions.ResourceNotFoundException;
 import com.recruitment.taskmanager.exceptions.UserExistedInTaskException;
 import com.recruitment.taskmanager.model.Task;
 import com.recruitment.taskmanager.model.User;
+import com.recruitment.taskmanager.repositories.OutboxEventRepository;
 import com.recruitment.taskmanager.repositories.TaskRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,23 +34,33 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.Mockito.*;
 
 @SpringBootTest
 @AutoConfigureMockMvc
 @Transactional
 @TestPropertySource(locations = "classpath:application-test.yml")
+@RecordApplicationEvents
 class TaskServiceTest {
 
     Task task1;
@@ -52,6 +82,10 @@ class TaskServiceTest {
     TaskService taskService;
     @Autowired
     private MockMvc mockMvc;
+    @Autowired
+    ApplicationEvents applicationEvents;
+    @Autowired
+    OutboxEventRepository outboxEventRepository;
     @MockBean
     UserIdMapper userIdMapper;
     @MockBean
@@ -78,13 +112,14 @@ class TaskServiceTest {
 
         //given
         allTasks = Arrays.asList(task1, task2,task3);
-        when(taskRepository.findTasks(null,null,null,null)).thenReturn(allTasks);
+        when(taskRepository.findTasks(new TaskSpecification(null,null,null,null,null), 11)).thenReturn(views(allTasks));
 
         //when
-        List<Task> tasks = taskService.findTasks(null,null,null,null);
+        TaskPage page = taskService.findTasks(null,null,null,null,null,10);
 
         //then
-        assertThat(tasks).hasSize(3).extracting(Task::getTitle).contains("firstTask", "secondTask","thirdTask");
+        assertThat(page.getTasks()).hasSize(3).extracting(TaskView::getTitle).contains("firstTask", "secondTask","thirdTask");
+        assertThat(page.getNext()).isNull();
 
     }
 
@@ -92,13 +127,66 @@ class TaskServiceTest {
     void findAll_whenSearch_then_returnAllTasks() {
         //given
         filteredTasks = Arrays.asList(task1, task3);
-        when(taskRepository.findTasks(null,null,2L,null)).thenReturn(filteredTasks);
+        when(taskRepository.findTasks(new TaskSpecification(null,null,2L,null,null), 11)).thenReturn(views(filteredTasks));
 
         //when
-        List<Task> tasks= taskService.findTasks(null,null,2L,null);
+        TaskPage page = taskService.findTasks(null,null,2L,null,null,10);
 
         //then
-        assertThat(tasks).hasSize(2).extracting(Task::getId).contains(1L, 3L);
+        assertThat(page.getTasks()).hasSize(2).extracting(TaskView::getId).contains(1L, 3L);
+    }
+
+    @Test
+    void findAll_whenMoreRowsThanLimit_then_returnNextCursor() {
+        //given
+        allTasks = Arrays.asList(task2, task3, task1);
+        when(taskRepository.findTasks(new TaskSpecification(null,null,null,null,null), 3)).thenReturn(views(allTasks));
+
+        //when
+        TaskPage page = taskService.findTasks(null,null,null,null,null,2);
+
+        //then
+        assertThat(page.getTasks()).hasSize(2).extracting(TaskView::getId).containsExactly(2L, 3L);
+        assertThat(TaskCursor.decode(page.getNext())).isEqualTo(new TaskCursor(task3.getDueDate(), 3L));
+    }
+
+    @Test
+    void findAll_whenAfterCursor_then_seekFromCursor() {
+        //given
+        String after = new TaskCursor(task3.getDueDate(), 3L).encode();
+        when(taskRepository.findTasks(new TaskSpecification(null,null,null,null,new TaskCursor(task3.getDueDate(), 3L)), 3))
+                .thenReturn(views(List.of(task1)));
+
+        //when
+        TaskPage page = taskService.findTasks(null,null,null,null,after,2);
+
+        //then
+        assertThat(page.getTasks()).extracting(TaskView::getId).containsExactly(1L);
+        assertThat(page.getNext()).isNull();
+    }
+
+    @Test
+    void findAll_then_attachUsersLoadedForWholePage() {
+        //given
+        when(taskRepository.findTasks(new TaskSpecification(null,null,null,null,null), 11))
+                .thenReturn(List.of(new TaskView(1L, "firstTask", "This is first tested task", Status.OPENED,
+                        LocalDate.of(2023, 1, 8))));
+        when(taskRepository.findUsersOfTasks(Set.of(1L))).thenReturn(List.of(
+                new TaskUserView(1L, 1L, "John", "Doe", "john@gmail.com", 18),
+                new TaskUserView(1L, 2L, "Jane", "Smith", "jane@gmail.com", 23)));
+
+        //when
+        TaskPage page = taskService.findTasks(null,null,null,null,null,10);
+
+        //then
+        assertThat(page.getTasks().get(0).getUsers()).extracting(UserView::getFirstName).containsExactly("John", "Jane");
+    }
+
+    @Test
+    void findAll_whenInvalidCursor_thenThrowInvalidCursorException() {
+
+        assertThatThrownBy(() -> taskService.findTasks(null,null,null,null,"not-a-cursor",2))
+                .isExactlyInstanceOf(InvalidCursorException.class);
     }
 
 
@@ -108,11 +196,12 @@ class TaskServiceTest {
         when(taskRepository.findById(task1.getId())).thenReturn(Optional.of(task1));
 
         //when
-        Optional<Task> task = taskService.findTaskById(1L);
+        Optional<CachedTask> task = taskService.findTaskById(1L);
 
         //then
-        assertThat(task.get().getId()).isEqualTo(1L);
-        assertThat(task.get().getTitle()).isEqualTo("firstTask");
+        assertThat(task.get().getTask().getId()).isEqualTo(1L);
+        assertThat(task.get().getTask().getTitle()).isEqualTo("firstTask");
+        assertThat(task.get().getETag()).isEqualTo(ETags.of(task1));
     }
 
     @Test
@@ -127,42 +216,113 @@ class TaskServiceTest {
 
         //then
         assertThat(savedTask.getTitle()).isEqualTo(taskDto.getTitle());
-        assertThat(savedTask.getUsers().get(0).getId()).isEqualTo(taskDto.getUserIds()[0]);
+        assertThat(savedTask.getUsers().iterator().next().getId()).isEqualTo(taskDto.getUserIds()[0]);
+    }
+
+    @Test
+    void createTask_then_publishNotificationForAssignedUsers() {
+
+        //given
+        when(userIdMapper.mapToUserList(List.of(2L))).thenReturn(List.of(user2));
+
+        //when
+        taskService.createTask(taskDto);
+
+        //then
+        assertThat(applicationEvents.stream(TaskNotificationEvent.class))
+                .singleElement()
+                .satisfies(event -> {
+                    assertThat(event.type()).isEqualTo(NotificationType.ADDED_TO_TASK);
+                    assertThat(event.recipients()).containsExactly(user2);
+                });
+    }
+
+    @Test
+    void createTasks_whenSomeInvalid_then_createValidAndRejectOthers() {
+
+        //given
+        TaskDto unknownUser = new TaskDto("secondTask", "This is second tested task", new Long[]{1L, 99L}, null);
+        TaskDto tooShortTitle = new TaskDto("x", "This is third tested task", null, null);
+        when(userIdMapper.mapToUsersById(Set.of(1L, 2L, 99L))).thenReturn(Map.of(1L, user1, 2L, user2));
+
+        //when
+        List<TaskBatchItem> results = taskService.createTasks(List.of(taskDto, unknownUser, tooShortTitle));
+
+        //then
+        assertThat(results).extracting(TaskBatchItem::getStatus)
+                .containsExactly(BatchItemStatus.CREATED, BatchItemStatus.REJECTED, BatchItemStatus.REJECTED);
+        assertThat(results.get(1).getErrors()).containsExactly("User with ID :99 Not Found");
+        assertThat(results.get(2).getErrors()).singleElement().asString().startsWith("title");
+        verify(userIdMapper, times(1)).mapToUsersById(anyCollection());
+        verify(taskRepository, times(1)).save(any(Task.class));
+        assertThat(applicationEvents.stream(TaskNotificationEvent.class)).hasSize(1);
+    }
+
+    @Test
+    void createTasks_whenTooMany_then_throwBatchTooLargeException() {
+
+        //given
+        List<TaskDto> taskDtos = Collections.nCopies(TaskService.MAX_BATCH_SIZE + 1, taskDto);
+
+        //when //then
+        assertThatThrownBy(() -> taskService.createTasks(taskDtos)).isInstanceOf(BatchTooLargeException.class);
+        verifyNoInteractions(taskRepository);
     }
 
     @Test
     void deleteById_then_deleteTask() {
         //given
-        doNothing().when(taskRepository).deleteById(task1.getId());
+        when(taskRepository.deleteWithAssignments(task1.getId()))
+                .thenReturn(Optional.of(new DeletedTask(Status.OPENED, task1.getDueDate(), List.of(1L))));
 
         //when
-        taskService.deleteTask(1L);
+        boolean deleted = taskService.deleteTask(task1.getId());
 
         //then
-        verify(taskRepository).deleteById(1L);
+        assertThat(deleted).isTrue();
+        verify(taskRepository, never()).findById(task1.getId());
+    }
+
+    @Test
+    void deleteById_whenInvalidTaskId_then_returnFalse() {
+        //given
+        when(taskRepository.deleteWithAssignments(99L)).thenReturn(Optional.empty());
+
+        //when //then
+        assertThat(taskService.deleteTask(99L)).isFalse();
     }
 
     @Test
     void addUserToTask_when_ValidTaskId_then_addUserToTask() {
         //given
         when(userIdMapper.mapToUser(user2.getId())).thenReturn(user2);
-        when(taskRepository.findById(task2.getId())).thenReturn(Optional.of(task2));
+        stubAddUserToTask(task2, user2);
 
         //when
         Task task = taskService.addUserToTask(user2.getId(),task2.getId());
 
         //then
-        assertThat(task.getUsers()).hasSize(1).extracting(User::getId).contains(2L);
+        assertThat(task).isSameAs(task2);
+        verify(taskRepository).incrementVersions(List.of(task2.getId()));
+        verify(taskRepository, never()).findById(task2.getId());
+        assertThat(applicationEvents.stream(TaskNotificationEvent.class))
+                .singleElement()
+                .satisfies(event -> {
+                    assertThat(event.recipients()).containsExactly(user2);
+                    assertThat(event.assignees()).containsExactly(user2);
+                    assertThat(event.assigneeCount()).isEqualTo(1);
+                });
 
     }
 
     @Test
     void addUserToTask_when_InValidTaskId_thenThrowResourceNotFoundException() {
 
-        when(taskRepository.findById(task2.getId())).thenReturn(Optional.empty());
+        when(taskRepository.findLockedById(task2.getId())).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> taskService.addUserToTask(user2.getId(),task2.getId()))
                 .isExactlyInstanceOf(ResourceNotFoundException.class);
+        verify(taskRepository, never()).insertAssignments(Mockito.any(), Mockito.any());
 
     }
 
@@ -170,31 +330,119 @@ class TaskServiceTest {
     void addUserToTask_when_UserIdExistedInTask_thenThrowUserExistedInTaskException() {
 
         when(userIdMapper.mapToUser(user1.getId())).thenReturn(user1);
-        when(taskRepository.findById(task1.getId())).thenReturn(Optional.of(task1));
+        when(taskRepository.findLockedById(task1.getId())).thenReturn(Optional.of(task1));
+        when(taskRepository.insertAssignments(List.of(task1.getId()), List.of(user1.getId()))).thenReturn(List.of());
 
         assertThatThrownBy(() -> taskService.addUserToTask(user1.getId(),task1.getId()))
                 .isExactlyInstanceOf(UserExistedInTaskException.class);
+        verify(taskRepository, never()).incrementVersions(Mockito.any());
 
     }
 
+    @Test
+    void addUserToTask_when_UserAddedConcurrently_thenThrowUserExistedInTaskException() {
+
+        when(userIdMapper.mapToUser(user2.getId())).thenReturn(user2);
+        when(taskRepository.findLockedById(task2.getId())).thenReturn(Optional.of(task2));
+        when(taskRepository.insertAssignments(List.of(task2.getId()), List.of(user2.getId())))
+                .thenThrow(new DataIntegrityViolationException("duplicate key in task_users"));
+
+        assertThatThrownBy(() -> taskService.addUserToTask(user2.getId(),task2.getId()))
+                .isExactlyInstanceOf(UserExistedInTaskException.class);
+    }
+
     @Test
     void removeUserFromTask_whenValidTaskId_thenRemoveUserFromTask() {
         //given
         when(userIdMapper.mapToUser(user1.getId())).thenReturn(user1);
-        when(taskRepository.findById(task1.getId())).thenReturn(Optional.of(task1));
+        when(taskRepository.findLockedById(task1.getId())).thenReturn(Optional.of(task1));
+        when(taskRepository.deleteAssignments(List.of(task1.getId()), List.of(user1.getId())))
+                .thenReturn(List.of(new TaskAssignment(task1.getId(), user1.getId())));
 
         //when
         Task task = taskService.removeUserFromTask(user1.getId(),task1.getId());
 
         //then
-        assertThat(task.getUsers()).hasSize(1).contains(user2);
+        assertThat(task).isSameAs(task1);
+        verify(taskRepository).incrementVersions(List.of(task1.getId()));
+        assertThat(applicationEvents.stream(TaskNotificationEvent.class))
+                .singleElement()
+                .satisfies(event -> assertThat(event.type()).isEqualTo(NotificationType.REMOVED_FROM_TASK));
+    }
+
+    @Test
+    void addUserToTask_then_writeOutboxRowInSameTransaction() {
+        //given
+        long pendingBefore = outboxEventRepository.countByStatus(OutboxStatus.PENDING);
+        when(userIdMapper.mapToUser(user2.getId())).thenReturn(user2);
+        stubAddUserToTask(task2, user2);
+
+        //when
+        taskService.addUserToTask(user2.getId(),task2.getId());
+
+        //then
+        assertThat(outboxEventRepository.countByStatus(OutboxStatus.PENDING)).isEqualTo(pendingBefore + 1);
+    }
+
+    @Test
+    void addUsersToTasks_then_writeOneOutboxRowPerAssignedUser() {
+        //given
+        long pendingBefore = outboxEventRepository.countByStatus(OutboxStatus.PENDING);
+        List<Long> taskIds = List.of(task2.getId(), task3.getId());
+        List<Long> userIds = List.of(user1.getId(), user2.getId());
+        when(taskRepository.lockViewsByIdIn(taskIds)).thenReturn(views(List.of(task2, task3)));
+        when(userIdMapper.mapToUserList(userIds)).thenReturn(List.of(user1, user2));
+        when(taskRepository.insertAssignments(taskIds, userIds)).thenReturn(List.of(
+                new TaskAssignment(task2.getId(), user1.getId()), new TaskAssignment(task3.getId(), user1.getId()),
+                new TaskAssignment(task2.getId(), user2.getId())));
+
+        //when
+        AssignmentResult result = taskService.addUsersToTasks(new TaskAssignmentDto(taskIds, userIds));
+
+        //then
+        assertThat(result.getChanged()).isEqualTo(3);
+        assertThat(result.getUnchanged()).isEqualTo(1);
+        assertThat(outboxEventRepository.countByStatus(OutboxStatus.PENDING)).isEqualTo(pendingBefore + 2);
+        assertThat(applicationEvents.stream(TaskAssignmentsEvent.class))
+                .extracting(event -> event.recipient().getId(), event -> event.tasks().size())
+                .containsExactlyInAnyOrder(tuple(user1.getId(), 2), tuple(user2.getId(), 1));
+        verify(taskRepository).incrementVersions(Set.of(task2.getId(), task3.getId()));
+    }
+
+    @Test
+    void removeUsersFromTasks_whenNothingAssigned_then_notifyNobody() {
+        //given
+        when(taskRepository.lockViewsByIdIn(List.of(task2.getId()))).thenReturn(views(List.of(task2)));
+        when(userIdMapper.mapToUserList(List.of(user1.getId()))).thenReturn(List.of(user1));
+        when(taskRepository.deleteAssignments(List.of(task2.getId()), List.of(user1.getId()))).thenReturn(List.of());
+
+        //when
+        AssignmentResult result = taskService.removeUsersFromTasks(
+                new TaskAssignmentDto(List.of(task2.getId()), List.of(user1.getId())));
+
+        //then
+        assertThat(result.getUnchanged()).isEqualTo(1);
+        assertThat(applicationEvents.stream(TaskAssignmentsEvent.class)).isEmpty();
+        verify(taskRepository, never()).incrementVersions(Mockito.any());
+    }
+
+    @Test
+    void addUsersToTasks_whenTaskMissing_thenThrowResourceNotFoundException() {
+        //given
+        when(taskRepository.lockViewsByIdIn(List.of(task2.getId(), 99L))).thenReturn(views(List.of(task2)));
+
+        //then
+        assertThatThrownBy(() -> taskService.addUsersToTasks(
+                new TaskAssignmentDto(List.of(task2.getId(), 99L), List.of(user1.getId()))))
+                .isExactlyInstanceOf(ResourceNotFoundException.class);
+        verify(taskRepository, never()).insertAssignments(Mockito.any(), Mockito.any());
     }
 
     @Test
     void removeUserFromTask_whenInValidTaskId_thenThrowResourceNotFoundException() {
         //given
         when(userIdMapper.mapToUser(user1.getId())).thenReturn(user1);
-        when(taskRepository.findById(task1.getId())).thenReturn(Optional.empty());
+        when(taskRepository.findLockedById(task1.getId())).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> taskService.removeUserFromTask(user1.getId(),task1.getId()))
                 .isExactlyInstanceOf(ResourceNotFoundException.class);
@@ -210,7 +458,38 @@ class TaskServiceTest {
 
         //then
         assertThat(task.getStatus()).isEqualTo(Status.COMPLETED);
+        assertThat(applicationEvents.stream(TaskStatsEvent.class))
+                .extracting(TaskStatsEvent::status, TaskStatsEvent::delta)
+                .containsExactly(tuple(Status.OPENED, -1), tuple(Status.COMPLETED, 1));
+        assertThat(applicationEvents.stream(TaskReopenedEvent.class)).isEmpty();
+    }
+
+    @Test
+    void changeTaskStatus_whenCompletedTaskMovedToInProgress_thenChangeStatus() {
+        //given
+        task1.setStatus(Status.COMPLETED);
+        when(taskRepository.findById(task1.getId())).thenReturn(Optional.of(task1));
+
+        //when
+        Task task = taskService.changeTaskStatus(Status.INPROGRESS, task1.getId());
 
+        //then
+        // the bulk endpoint skips this transition, the single-task endpoint keeps allowing it
+        assertThat(task.getStatus()).isEqualTo(Status.INPROGRESS);
+        assertThat(applicationEvents.stream(TaskReopenedEvent.class))
+                .containsExactly(new TaskReopenedEvent(task1.getId(), task1.getDueDate()));
+    }
+
+    @Test
+    void changeTasksStatus_whenFilterMatchesTooManyTasks_thenThrowBatchTooLargeException() {
+        //given
+        when(taskRepository.count(Mockito.<TaskSpecification>any())).thenReturn((long) TaskService.MAX_BATCH_SIZE + 1);
+
+        //then
+        assertThatThrownBy(() -> taskService.changeTasksStatus(Status.COMPLETED, null, null, null,
+                LocalDate.of(2100, 1, 1)))
+                .isExactlyInstanceOf(BatchTooLargeException.class);
+        verify(taskRepository, never()).lockStatuses(Mockito.any(), Mockito.any(), Mockito.anyInt());
     }
 
     @Test
@@ -236,4 +515,16 @@ class TaskServiceTest {
         //then
         assertThat(tasks).hasSize(2).extracting(Task::getId).contains(2L, 3L);
     }
-}
\ No newline at end of file
+
+    private void stubAddUserToTask(Task task, User user) {
+        when(taskRepository.findLockedById(task.getId())).thenReturn(Optional.of(task));
+        when(taskRepository.insertAssignments(List.of(task.getId()), List.of(user.getId())))
+                .thenReturn(List.of(new TaskAssignment(task.getId(), user.getId())));
+        when(taskRepository.findUsersOfTask(Mockito.eq(task.getId()), Mockito.any()))
+                .thenReturn(new PageImpl<>(List.of(user)));
+    }
+
+    private static List<TaskView> views(List<Task> tasks) {
+        return tasks.stream().map(TaskView::of).toList();
+    }
+}
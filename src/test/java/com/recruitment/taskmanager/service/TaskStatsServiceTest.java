@@ -0,0 +1,183 @@
+package com.recruitment.taskmanager.service;
+
+import com.recruitment.taskmanager.dto.TaskDto;
+import com.recruitment.taskmanager.dto.TaskStats;
+import com.recruitment.taskmanager.enums.Status;
+import com.recruitment.taskmanager.events.TaskStatsEvent;
+import com.recruitment.taskmanager.model.Task;
+import com.recruitment.taskmanager.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.recruitment.taskmanager.service.TaskFixture.task;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+
+@DataJpaTest
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import({TaskStatsService.class, TaskService.class, UserIdMapper.class, UserService.class})
+class TaskStatsServiceTest {
+
+    private static final LocalDate PAST = LocalDate.now().minusDays(3);
+    private static final LocalDate FUTURE = LocalDate.now().plusDays(3);
+
+    @Autowired
+    TestEntityManager entityManager;
+    @Autowired
+    TaskStatsService taskStatsService;
+    @Autowired
+    TaskService taskService;
+    @SpyBean
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void rebuild_then_countTasksPerStatusAndOverdue() {
+
+        User user = persistUser("john@gmail.com");
+        User other = persistUser("jane@gmail.com");
+        task().status(Status.OPENED).dueDate(PAST).users(user, other).persist(entityManager);
+        task().status(Status.INPROGRESS).dueDate(FUTURE).users(user).persist(entityManager);
+        task().status(Status.COMPLETED).dueDate(PAST).users(user).persist(entityManager);
+        task().status(Status.OPENED).persist(entityManager);
+        entityManager.flush();
+
+        taskStatsService.rebuild();
+
+        assertStats(taskStatsService.globalStats(), 2, 1, 1, 1);
+        assertStats(taskStatsService.userStats(user.getId()), 1, 1, 1, 1);
+        assertStats(taskStatsService.userStats(other.getId()), 1, 0, 0, 1);
+    }
+
+    @Test
+    void userStats_whenUserHasNoTasks_then_returnZeros() {
+
+        taskStatsService.rebuild();
+
+        assertStats(taskStatsService.userStats(99L), 0, 0, 0, 0);
+    }
+
+    @Test
+    void changeTasks_then_updateCountersAfterCommit() {
+
+        taskStatsService.rebuild();
+        TaskStats before = taskStatsService.globalStats();
+        User user = persistUser("john@gmail.com");
+        Task task = taskService.createTask(new TaskDto("Quarterly audit", "Prepare documents",
+                new Long[]{user.getId()}, PAST));
+
+        assertThat(taskStatsService.globalStats().getOpened()).isEqualTo(before.getOpened());
+        commit();
+        assertStats(taskStatsService.globalStats(), before.getOpened() + 1, before.getInProgress(),
+                before.getCompleted(), before.getOverdue() + 1);
+        assertStats(taskStatsService.userStats(user.getId()), 1, 0, 0, 1);
+
+        taskService.changeTaskStatus(Status.COMPLETED, task.getId());
+        commit();
+        assertStats(taskStatsService.globalStats(), before.getOpened(), before.getInProgress(),
+                before.getCompleted() + 1, before.getOverdue());
+        assertStats(taskStatsService.userStats(user.getId()), 0, 0, 1, 0);
+
+        taskService.removeUserFromTask(user.getId(), task.getId());
+        commit();
+        assertStats(taskStatsService.userStats(user.getId()), 0, 0, 0, 0);
+
+        taskService.deleteTask(task.getId());
+        entityManager.remove(entityManager.find(User.class, user.getId()));
+        commit();
+        assertStats(taskStatsService.globalStats(), before.getOpened(), before.getInProgress(),
+                before.getCompleted(), before.getOverdue());
+    }
+
+    @Test
+    void changeTasksStatus_then_moveCountersOfEveryTaskAfterCommit() {
+
+        User user = persistUser("john@gmail.com");
+        Task overdue = task().status(Status.OPENED).dueDate(PAST).users(user).persist(entityManager);
+        Task upcoming = task().status(Status.INPROGRESS).dueDate(FUTURE).users(user).persist(entityManager);
+        entityManager.flush();
+        taskStatsService.rebuild();
+        TaskStats before = taskStatsService.globalStats();
+
+        taskService.changeTasksStatus(Status.COMPLETED, List.of(overdue.getId(), upcoming.getId()));
+        commit();
+
+        assertStats(taskStatsService.globalStats(), before.getOpened() - 1, before.getInProgress() - 1,
+                before.getCompleted() + 2, before.getOverdue() - 1);
+        assertStats(taskStatsService.userStats(user.getId()), 0, 0, 2, 0);
+
+        taskService.deleteTask(overdue.getId());
+        taskService.deleteTask(upcoming.getId());
+        entityManager.remove(entityManager.find(User.class, user.getId()));
+        commit();
+    }
+
+    @Test
+    void stats_whenDueDatePasses_then_countOpenTaskAsOverdue() {
+
+        User user = persistUser("john@gmail.com");
+        task().status(Status.OPENED).dueDate(FUTURE).users(user).persist(entityManager);
+        task().status(Status.COMPLETED).dueDate(FUTURE).users(user).persist(entityManager);
+        entityManager.flush();
+        taskStatsService.rebuild();
+
+        long overdueBefore = taskStatsService.globalStats(FUTURE).getOverdue();
+
+        assertStats(taskStatsService.userStats(user.getId(), FUTURE), 1, 0, 1, 0);
+        assertStats(taskStatsService.userStats(user.getId(), FUTURE.plusDays(1)), 1, 0, 1, 1);
+        assertThat(taskStatsService.globalStats(FUTURE.plusDays(1)).getOverdue()).isEqualTo(overdueBefore + 1);
+    }
+
+    @Test
+    void rebuild_whenTaskChangedWhileRebuilding_then_keepChange() {
+
+        User user = persistUser("john@gmail.com");
+        entityManager.flush();
+        Task committedAfterRead = task().dueDate(PAST).users(user).build();
+        AtomicBoolean firstQuery = new AtomicBoolean(true);
+        doAnswer(invocation -> {
+            Object result = invocation.callRealMethod();
+            // the task commits after the rebuild read the task table, but before the counters are replaced
+            if (firstQuery.getAndSet(false)) {
+                taskStatsService.onTaskStats(TaskStatsEvent.added(committedAfterRead));
+            }
+            return result;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+        taskStatsService.rebuild();
+
+        assertStats(taskStatsService.userStats(user.getId()), 1, 0, 0, 1);
+    }
+
+    private void commit() {
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        TestTransaction.start();
+    }
+
+    private User persistUser(String email) {
+        return entityManager.persist(new User(null, "John", "Doe", email, 18, new ArrayList<>()));
+    }
+
+    private static void assertStats(TaskStats stats, long opened, long inProgress, long completed, long overdue) {
+        assertThat(stats.getOpened()).isEqualTo(opened);
+        assertThat(stats.getInProgress()).isEqualTo(inProgress);
+        assertThat(stats.getCompleted()).isEqualTo(completed);
+        assertThat(stats.getOverdue()).isEqualTo(overdue);
+    }
+}
@@ -0,0 +1,75 @@
+package com.recruitment.taskmanager.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimerWheelTest {
+
+    @Test
+    void advanceTo_then_expireEntriesAtTheirDeadlineOnEveryLevel() {
+
+        //given
+        TimerWheel wheel = new TimerWheel(1_000);
+        long[] deadlines = {1_001, 1_063, 1_064, 1_000 + 64 * 64, 1_000 + 64 * 64 * 64 + 5, 1_000 + 3 * 64 * 64 * 64 * 64L + 17};
+        for (long deadline : deadlines) {
+            wheel.schedule(deadline, deadline * 10);
+        }
+        List<long[]> expired = new ArrayList<>();
+
+        //when
+        for (long tick = 1_001; tick <= deadlines[deadlines.length - 1]; tick += 7) {
+            long now = tick;
+            wheel.advanceTo(now, (deadline, payload) -> expired.add(new long[]{now, deadline, payload}));
+        }
+        wheel.advanceTo(deadlines[deadlines.length - 1], (deadline, payload) ->
+                expired.add(new long[]{deadlines[deadlines.length - 1], deadline, payload}));
+
+        //then
+        assertThat(expired).hasSize(deadlines.length);
+        for (int i = 0; i < deadlines.length; i++) {
+            long[] entry = expired.get(i);
+            assertThat(entry[1]).isEqualTo(deadlines[i]);
+            assertThat(entry[2]).isEqualTo(deadlines[i] * 10);
+            assertThat(entry[0]).isBetween(deadlines[i], deadlines[i] + 6);
+        }
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void schedule_whenDeadlinePassed_then_expireOnNextAdvance() {
+
+        //given
+        TimerWheel wheel = new TimerWheel(500);
+        wheel.advanceTo(600, (deadline, payload) -> { });
+        wheel.schedule(550, 1);
+        List<Long> expired = new ArrayList<>();
+
+        //when
+        wheel.advanceTo(601, (deadline, payload) -> expired.add(deadline));
+
+        //then
+        assertThat(expired).containsExactly(550L);
+    }
+
+    @Test
+    void schedule_whileCascading_then_keepEntriesOfTheSameSlotApart() {
+
+        //given
+        TimerWheel wheel = new TimerWheel(0);
+        for (long deadline = 1; deadline <= 10_000; deadline++) {
+            wheel.schedule(deadline, deadline);
+        }
+        List<Long> expired = new ArrayList<>();
+
+        //when
+        wheel.advanceTo(5_000, (deadline, payload) -> expired.add(payload));
+
+        //then
+        assertThat(expired).hasSize(5_000).isSorted();
+        assertThat(wheel.size()).isEqualTo(5_000);
+    }
+}
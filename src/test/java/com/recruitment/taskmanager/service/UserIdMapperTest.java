@@ -0,0 +1,80 @@
+package com.recruitment.taskmanager.service;
+
+import com.recruitment.taskmanager.exceptions.ResourceNotFoundException;
+import com.recruitment.taskmanager.model.User;
+import com.recruitment.taskmanager.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-test.yml")
+class UserIdMapperTest {
+
+    User user1;
+    User user2;
+
+    @Autowired
+    UserIdMapper userIdMapper;
+    @MockBean
+    private UserRepository userRepository;
+
+    @BeforeEach
+    public void setUp() {
+        user1 = new User(1L, "John", "Doe", "john@gmail.com", 18, null);
+        user2 = new User(2L, "Jane", "Smith", "jane@gmail.com", 23, null);
+    }
+
+    @Test
+    void mapToUserList_then_loadAllUsersInOneQueryInRequestOrder() {
+
+        //given
+        when(userRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(user1, user2));
+
+        //when
+        List<User> users = userIdMapper.mapToUserList(List.of(2L, 1L));
+
+        //then
+        assertThat(users).containsExactly(user2, user1);
+        verify(userRepository, times(1)).findAllById(anyIterable());
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void mapToUserList_whenIdsMissing_then_reportAllMissingIds() {
+
+        //given
+        when(userRepository.findAllById(List.of(1L, 3L, 4L))).thenReturn(List.of(user1));
+
+        //when //then
+        assertThatThrownBy(() -> userIdMapper.mapToUserList(List.of(1L, 3L, 4L)))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Users with IDs :[3, 4] Not Found");
+    }
+
+    @Test
+    void mapToUsersById_whenManyIds_then_queryInChunks() {
+
+        //given
+        List<Long> ids = LongStream.rangeClosed(1, 2 * UserIdMapper.MAX_IDS_PER_QUERY + 1).boxed().toList();
+        when(userRepository.findAllById(anyIterable())).thenReturn(List.of());
+
+        //when
+        userIdMapper.mapToUsersById(ids);
+
+        //then
+        verify(userRepository, times(3)).findAllById(anyIterable());
+    }
+}
@@ -0,0 +1,115 @@
+package com.recruitment.taskmanager.service;
+
+import com.recruitment.taskmanager.config.CacheConfig;
+import com.recruitment.taskmanager.enums.SearchOperation;
+import com.recruitment.taskmanager.exceptions.InvalidSearchException;
+import com.recruitment.taskmanager.model.User;
+import com.recruitment.taskmanager.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.cache.CacheType;
+import org.springframework.boot.test.autoconfigure.core.AutoConfigureCache;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+@AutoConfigureCache(cacheProvider = CacheType.CAFFEINE)
+@Import({CacheConfig.class, UserSearchParser.class})
+class UserSearchParserTest {
+
+    @Autowired
+    UserSearchParser userSearchParser;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Test
+    void parse_whenSeveralCriteria_then_convertValuesToFieldTypes() {
+
+        UserSpecification specification = userSearchParser.parse("firstName:John,age>=30");
+
+        assertThat(specification.getSearchCriteriaList())
+                .extracting(SearchCriteria::getKey, SearchCriteria::getOperation, SearchCriteria::getValue)
+                .containsExactly(
+                        tuple("firstName", SearchOperation.MATCH, "John"),
+                        tuple("age", SearchOperation.GREATER_THAN_OR_EQUAL, 30));
+    }
+
+    @Test
+    void parse_whenIdField_then_convertToLong() {
+
+        UserSpecification specification = userSearchParser.parse("id:5");
+
+        assertThat(specification.getSearchCriteriaList())
+                .extracting(SearchCriteria::getKey, SearchCriteria::getOperation, SearchCriteria::getValue)
+                .containsExactly(tuple("id", SearchOperation.MATCH, 5L));
+    }
+
+    @Test
+    void parse_whenSameSearchWithSurroundingSpaces_then_returnCachedSpecification() {
+
+        UserSpecification first = userSearchParser.parse("lastName:Smith,age<40");
+        UserSpecification second = userSearchParser.parse("  lastName:Smith,age<40 ");
+
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void parse_whenUnknownField_thenThrowInvalidSearchException() {
+
+        assertThatThrownBy(() -> userSearchParser.parse("firstName:John,password:secret"))
+                .isExactlyInstanceOf(InvalidSearchException.class)
+                .hasMessage("Unknown search field :password");
+        assertThatThrownBy(() -> userSearchParser.parse("tasks:1"))
+                .isExactlyInstanceOf(InvalidSearchException.class);
+    }
+
+    @Test
+    void checkSort_whenId_then_acceptJsonNameOnly() {
+
+        assertThat(userSearchParser.checkSort(Sort.by(Sort.Direction.DESC, "id"))).isEqualTo(Sort.by(Sort.Direction.DESC, "id"));
+        assertThatThrownBy(() -> userSearchParser.checkSort(Sort.by("Id")))
+                .isExactlyInstanceOf(InvalidSearchException.class)
+                .hasMessage("Unknown sort field :Id");
+    }
+
+    @Test
+    void parse_whenValueOfWrongType_thenThrowInvalidSearchException() {
+
+        assertThatThrownBy(() -> userSearchParser.parse("age>old"))
+                .isExactlyInstanceOf(InvalidSearchException.class);
+    }
+
+    @Test
+    void findAll_withParsedSpecification_then_returnMatchingUsers() {
+
+        entityManager.persist(new User(null, "John", "Doe", "john@gmail.com", 18, new ArrayList<>()));
+        entityManager.persist(new User(null, "John", "Smith", "smith@gmail.com", 40, new ArrayList<>()));
+        entityManager.persist(new User(null, "Jane", "Smith", "jane@gmail.com", 23, new ArrayList<>()));
+
+        List<User> users = (List<User>) userRepository.findAll(userSearchParser.parse("firstName:Jo,age>20"));
+
+        assertThat(users).extracting(User::getEmail).containsExactly("smith@gmail.com");
+    }
+
+    @Test
+    void findAll_withParsedIdSpecification_then_returnThatUser() {
+
+        User user = entityManager.persist(new User(null, "John", "Doe", "john@gmail.com", 18, new ArrayList<>()));
+        entityManager.persist(new User(null, "Jane", "Smith", "jane@gmail.com", 23, new ArrayList<>()));
+
+        List<User> users = (List<User>) userRepository.findAll(userSearchParser.parse("id:" + user.getId()));
+
+        assertThat(users).extracting(User::getEmail).containsExactly("john@gmail.com");
+    }
+}
@@ -1,6 +1,8 @@
 package com.recruitment.taskmanager.service;
 
 import com.recruitment.taskmanager.dto.UserDto;
+import com.recruitment.taskmanager.dto.UserPage;
+import com.recruitment.taskmanager.exceptions.InvalidSearchException;
 import com.recruitment.taskmanager.exceptions.ResourceNotFoundException;
 import com.recruitment.taskmanager.model.User;
 import com.recruitment.taskmanager.repositories.UserRepository;
@@ -10,6 +12,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
@@ -53,21 +59,55 @@ class UserServiceTest {
     }
 
     @Test
-    void findAllUsers_whenSearchNull_then_returnAllUsers() {
+    void findUsers_whenOffsetExceedsInt_thenThrowInvalidSearchException() {
+
+        //given
+        UserSpecification specification = new UserSpecification(List.of());
+        Pageable pageable = PageRequest.of(Integer.MAX_VALUE / 2, 50);
+
+        //then
+        assertThatThrownBy(() -> userService.findUsers(specification, pageable, false))
+                .isExactlyInstanceOf(InvalidSearchException.class);
+        verify(userRepository, never()).findUsers(any(), any());
+    }
+
+    @Test
+    void findUsers_whenSearchNull_then_returnPageWithoutCount() {
 
         //given
         allUsers = Arrays.asList(user1, user2);
-        UserSpecification specification = new UserSpecification();
-        when(userRepository.findAll(specification)).thenReturn(allUsers);
+        UserSpecification specification = new UserSpecification(List.of());
+        Pageable pageable = PageRequest.of(0, 2, Sort.by("id"));
+        when(userRepository.findUsers(specification, pageable)).thenReturn(new SliceImpl<>(allUsers, pageable, true));
 
         //when
-        List<User> users = userService.findAllUsers(specification);
+        UserPage page = userService.findUsers(specification, PageRequest.of(0, 2), false);
 
         //then
-        assertThat(users).hasSize(2).extracting(User::getFirstName).contains("John", "Jane");
+        assertThat(page.getUsers()).hasSize(2).extracting(User::getFirstName).contains("John", "Jane");
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(page.getTotal()).isNull();
+        verify(userRepository, never()).count(specification);
 
     }
 
+    @Test
+    void findUsers_whenSortedById_then_notAddIdTiebreaker() {
+
+        //given
+        UserSpecification specification = new UserSpecification(List.of());
+        Pageable pageable = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "id"));
+        when(userRepository.findUsers(specification, pageable))
+                .thenReturn(new SliceImpl<>(List.of(user3, user2), pageable, true));
+
+        //when
+        UserPage page = userService.findUsers(specification, pageable, false);
+
+        //then
+        assertThat(page.getUsers()).extracting(User::getId).containsExactly(3L, 2L);
+        verify(userRepository).findUsers(specification, pageable);
+    }
+
     @Test
     void findUserById_then_returnUser() {
 
@@ -96,16 +136,30 @@ class UserServiceTest {
     }
 
     @Test
-    void deleteUser_then_deleteUser() {
+    void deleteUser_then_deleteUserWithoutLoadingIt() {
+
+        //given
+        when(userRepository.deleteUserById(1L)).thenReturn(1);
+
+        //when
+        boolean deleted = userService.deleteUser(1L);
+
+        //then
+        assertThat(deleted).isTrue();
+        verify(userRepository, never()).findById(1L);
+    }
+
+    @Test
+    void deleteUser_whenInvalidUserId_then_returnFalse() {
 
         //given
-        doNothing().when(userRepository).deleteById(user1.getId());
+        when(userRepository.deleteUserById(99L)).thenReturn(0);
 
         //when
-        userService.deleteUser(1L);
+        boolean deleted = userService.deleteUser(99L);
 
         //then
-        verify(userRepository).deleteById(1L);
+        assertThat(deleted).isFalse();
     }
 
     @Test